@@ -0,0 +1,48 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberBulkLoader;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//벤치마크용 애플리케이션 - 내장 h2 메모리 db, sql 로그/p6spy 끔
+public class BenchmarkApplication {
+
+    public static final int TEAM_COUNT = 10;
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "--decorator.datasource.enabled=false",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--spring.jpa.properties.hibernate.format_sql=false"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    // member0 ~ member{rows-1}, 나이는 i % 100, 팀은 TEAM_COUNT개에 나눠서 저장
+    public static void load(ConfigurableApplicationContext context, int rows) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(teamRepository.save(new Team("team" + i)));
+        }
+
+        List<Member> members = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Member member = new Member("member" + i, i % 100);
+            member.setTeam(teams.get(i % TEAM_COUNT)); // 팀의 members 컬렉션은 건드리지 않음
+            members.add(member);
+        }
+        context.getBean(MemberBulkLoader.class).saveAll(members);
+    }
+}
@@ -0,0 +1,86 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.OptimisticRetryTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//같은 회원을 여러 스레드가 동시에 수정할 때 비관적 락 vs 낙관적 락 + 재시도
+//Throughput과 SampleTime(p99 등 백분위)을 같이 측정, hotRows가 작을수록 경합이 심함
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class MemberLockContentionBenchmark {
+
+    @Param({"1", "16"})
+    int hotRows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+    OptimisticRetryTemplate optimisticRetryTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--member.optimistic-retry.max-attempts=1000",
+                "--member.optimistic-retry.backoff-ms=1");
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        optimisticRetryTemplate = context.getBean(OptimisticRetryTemplate.class);
+        for (int i = 0; i < hotRows; i++) {
+            memberRepository.save(new Member("hot" + i, 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String hotUsername() {
+        return "hot" + ThreadLocalRandom.current().nextInt(hotRows);
+    }
+
+    @Benchmark
+    public void pessimistic() {
+        String username = hotUsername();
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.findPessimisticLockByUsername(username).get(0);
+            member.setAge(member.getAge() + 1);
+        });
+    }
+
+    @Benchmark
+    public void optimistic() {
+        String username = hotUsername();
+        optimisticRetryTemplate.run(() -> {
+            Member member = memberRepository.findLockByUsername(username).get(0);
+            member.setAge(member.getAge() + 1);
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberPartitionedReader;
+import study.datajpa.repository.MemberProjection;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.UsernameAgeDto;
+import study.datajpa.repository.UsernameOnly;
+import study.datajpa.repository.UsernameOnlyDto;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//MemberRepository 조회 방식별 처리량/할당량 비교
+//단건 조회는 임의의 username으로, 전체 조회는 rows 건을 모두 읽는다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PARTITIONS = 8;
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberPartitionedReader memberPartitionedReader;
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.load(context, rows);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberPartitionedReader = context.getBean(MemberPartitionedReader.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    // ---- 단건 조회 ----
+
+    @Benchmark
+    public List<Member> derivedQuery() {
+        return memberRepository.findByUsernameAndAgeGreaterThan("member" + randomIndex(), -1);
+    }
+
+    @Benchmark
+    public List<Member> jpqlQuery() {
+        int i = randomIndex();
+        return memberRepository.findUser("member" + i, i % 100);
+    }
+
+    @Benchmark
+    public List<Member> namedQuery() {
+        return memberRepository.findByUsername("member" + randomIndex());
+    }
+
+    @Benchmark
+    public Member readOnlyHint() {
+        return memberRepository.findReadOnlyByUsername("member" + randomIndex());
+    }
+
+    @Benchmark
+    public Member nativeQuery() {
+        return memberRepository.findByNativeQuery("member" + randomIndex());
+    }
+
+    @Benchmark
+    public List<Member> entityGraphByUsername() {
+        return memberRepository.findEntityGraphByUsername("member" + randomIndex());
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> classProjection() {
+        return memberRepository.findProjectionsByUsername("member" + randomIndex());
+    }
+
+    // ---- 페이징 (MemberController.list) ----
+
+    @Benchmark
+    public List<MemberDto> entityPageMap() {
+        return memberRepository.findAll(randomPage()).map(m -> new MemberDto(m)).getContent();
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoPage() {
+        return memberRepository.findMemberDtoPage(randomPage()).getContent();
+    }
+
+    private PageRequest randomPage() {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    // ---- 전체 조회 ----
+
+    @Benchmark
+    public List<MemberDto> dtoProjection() {
+        return memberRepository.findMemberDto();
+    }
+
+    @Benchmark
+    public List<UsernameOnly> openInterfaceProjection() {
+        return memberRepository.findProjectionsByAgeGreaterThanEqual(0, UsernameOnly.class);
+    }
+
+    @Benchmark
+    public List<UsernameAgeDto> closedDtoProjection() { // openInterfaceProjection과 같은 결과
+        return memberRepository.findProjectionsByAgeGreaterThanEqual(0, UsernameAgeDto.class);
+    }
+
+    @Benchmark
+    public List<MemberProjection> nativeProjectionPage() {
+        return memberRepository.findByNativeProjection(PageRequest.of(0, 100)).getContent();
+    }
+
+    @Benchmark
+    public List<MemberDto> partitionedRead() { // dtoProjection을 id 범위로 나눠서 병렬로
+        return memberPartitionedReader.readAll(PARTITIONS);
+    }
+
+    @Benchmark
+    public List<Member> fetchJoin() {
+        return memberRepository.findMemberFetchJoin();
+    }
+
+    @Benchmark
+    public List<Member> entityGraph() {
+        return memberRepository.findMemberEntityGraph();
+    }
+
+    // ---- 전체 조회 후 커밋: 쓰기 트랜잭션(스냅샷 메모리 + flush 때 변경감지 비용) vs 읽기 전용 트랜잭션 ----
+
+    @Benchmark
+    public int readWriteLoad() {
+        return transactionTemplate.execute(status -> em
+                .createQuery("select m from Member m left join fetch m.team", Member.class)
+                .getResultList()
+                .size());
+    }
+
+    //같은 쿼리 + @ReadOnlyQuery, 트랜잭션 밖에서 호출 -> aspect가 readOnly 트랜잭션을 열어 스냅샷/flush 없이 읽음
+    //(쓰기 트랜잭션 안에서는 엔티티를 반환하는 메서드를 읽기 전용으로 바꾸지 않으므로 readWriteLoad와 같은 비용 + flush)
+    @Benchmark
+    public int readOnlyQueryLoad() {
+        return memberRepository.findMemberFetchJoin().size();
+    }
+}
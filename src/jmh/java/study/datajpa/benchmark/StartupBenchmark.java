@@ -0,0 +1,45 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+//애플리케이션 시작 ~ 첫 쿼리 완료까지 시간 (기본 설정 vs fast-startup 프로파일)
+//fork마다 새 jvm에서 한번만 측정 -> 클래스 로딩, JIT 전 콜드 스타트
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"default", "fast-startup"})
+    String profile;
+
+    ConfigurableApplicationContext context;
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long startAndFirstQuery() {
+        context = BenchmarkApplication.start("--spring.profiles.active=" + profile);
+        return context.getBean(MemberRepository.class).count();
+    }
+}
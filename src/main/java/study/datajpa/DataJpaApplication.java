@@ -3,13 +3,16 @@ package study.datajpa;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.config.TransactionScopedAuditorAware;
+import study.datajpa.config.TransactionScopedDateTimeProvider;
 
-import java.util.Optional;
+import java.time.Clock;
 import java.util.UUID;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -19,6 +22,11 @@ public class DataJpaApplication {
 
 	@Bean
 	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString()); //UUID.randomUUID().toString() 이부분에 userId 넣어주면 됨
+		return new TransactionScopedAuditorAware(() -> UUID.randomUUID().toString()); //UUID.randomUUID().toString() 이부분에 userId 넣어주면 됨 (트랜잭션당 한번 호출)
+	}
+
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider() {
+		return new TransactionScopedDateTimeProvider(Clock.systemDefaultZone());
 	}
 }
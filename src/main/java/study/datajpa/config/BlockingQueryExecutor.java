@@ -0,0 +1,46 @@
+package study.datajpa.config;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+//블로킹 jpa 호출을 서블릿 스레드 대신 실행하는 전용 스레드풀
+//스레드 수 = 커넥션 풀 크기, 실행 + 대기 중인 작업이 threads + maxWaiting 을 넘으면 바로 거절(RejectedExecutionException)
+//java 21 이상으로 올라가면 executor만 Executors.newVirtualThreadPerTaskExecutor()로 바꾸고 admission은 그대로 사용
+public class BlockingQueryExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore admission;
+
+    public BlockingQueryExecutor(int threads, int maxWaiting) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("query-"));
+        this.admission = new Semaphore(threads + maxWaiting);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (!admission.tryAcquire()) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new RejectedExecutionException("db 작업 대기열이 가득 찼습니다"));
+            return rejected;
+        }
+        try {
+            return CompletableFuture.supplyAsync(work, executor)
+                    .whenComplete((result, ex) -> admission.release());
+        } catch (RejectedExecutionException e) { // 종료 중
+            admission.release();
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
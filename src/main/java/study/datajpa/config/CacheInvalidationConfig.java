@@ -0,0 +1,32 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.repository.CacheInvalidationBus;
+import study.datajpa.repository.LocalCacheInvalidationBus;
+import study.datajpa.repository.MulticastCacheInvalidationBus;
+
+import java.io.IOException;
+
+//인스턴스 간 캐시 무효화 전달 방식 (member.cache-bus.type)
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "member.cache-bus.type", havingValue = "local", matchIfMissing = true)
+    public CacheInvalidationBus localCacheInvalidationBus() {
+        return new LocalCacheInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "member.cache-bus.type", havingValue = "multicast")
+    public CacheInvalidationBus multicastCacheInvalidationBus(
+            @Value("${member.cache-bus.multicast.group:239.255.27.1}") String group,
+            @Value("${member.cache-bus.multicast.port:45588}") int port,
+            @Value("${member.cache-bus.multicast.ttl:1}") int ttl,
+            @Value("${member.cache-bus.multicast.interface:}") String networkInterface) throws IOException {
+        return new MulticastCacheInvalidationBus(group, port, ttl, networkInterface);
+    }
+}
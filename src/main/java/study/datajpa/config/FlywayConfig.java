@@ -0,0 +1,22 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    //schema.clean-on-start=true 면 마이그레이션 전에 스키마를 모두 지움 (테스트용, 기본 false)
+    //spring.flyway.clean-disabled(기본 설정 true)가 켜져 있으면 clean()이 예외 -> 운영에서 켜도 데이터를 지우지 않고 시작 실패
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${schema.clean-on-start:false}") boolean cleanOnStart) {
+        return flyway -> {
+            if (cleanOnStart) {
+                flyway.clean();
+            }
+            flyway.migrate();
+        };
+    }
+}
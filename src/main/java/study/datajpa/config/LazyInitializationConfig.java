@@ -0,0 +1,22 @@
+package study.datajpa.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.repository.EntityCacheInvalidator;
+import study.datajpa.repository.LazyLoadDetector;
+import study.datajpa.repository.TeamStatsMaintainer;
+
+//spring.main.lazy-initialization=true (fast-startup 프로파일) 에서도 바로 만들 빈
+//hibernate 이벤트 리스너를 @PostConstruct에서 등록하므로 처음 주입될 때 만들어지면 그 전의 이벤트를 놓침
+// - TeamStatsMaintainer: 그 사이 회원 저장/수정/삭제가 팀 통계에 반영 안됨
+// - EntityCacheInvalidator: 커밋 후 캐시 무효화와 다른 인스턴스의 무효화 이벤트(bus.subscribe)를 놓침
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eventListenerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                TeamStatsMaintainer.class, EntityCacheInvalidator.class, LazyLoadDetector.class);
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryExecutorConfig {
+
+    //member.async.enabled와 관계없이 등록 - AsyncMemberController(비동기 조회)와 MemberBatchLookup(/members/lookup 병렬 조회)이 같이 사용
+    //스레드는 작업이 들어올 때 만들어지므로 비동기 api를 끄면 lookup이 쓰는 만큼만 생김
+    @Bean(destroyMethod = "shutdown")
+    public BlockingQueryExecutor blockingQueryExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${member.async.max-waiting:100}") int maxWaiting) {
+        return new BlockingQueryExecutor(connectionPoolSize, maxWaiting);
+    }
+}
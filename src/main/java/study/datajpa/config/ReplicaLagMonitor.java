@@ -0,0 +1,64 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//replica 사용 가능 여부 - checkInterval 마다 한번만 확인하고 나머지 호출은 마지막 결과를 사용
+//lagQuery는 복제 지연(ms) 하나를 반환하는 쿼리, 비어 있으면 연결만 확인한다
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long checkIntervalNanos;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile boolean available = true;
+    private volatile long nextCheckAt = System.nanoTime();
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, long checkIntervalMillis) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis);
+    }
+
+    public boolean isReplicaAvailable() {
+        if (System.nanoTime() - nextCheckAt >= 0 && checking.compareAndSet(false, true)) {
+            try {
+                boolean result = probe();
+                if (result != available) {
+                    log.warn("replica {}", result ? "복구 - replica로 읽기" : "지연/장애 - primary로 읽기");
+                }
+                available = result;
+                nextCheckAt = System.nanoTime() + checkIntervalNanos;
+            } finally {
+                checking.set(false);
+            }
+        }
+        return available;
+    }
+
+    private boolean probe() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() && rs.getLong(1) <= maxLagMillis;
+            }
+        } catch (SQLException e) {
+            log.warn("replica 상태 확인 실패", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+//읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica, 나머지는 primary로 보낸다
+//datasource.routing.enabled=true 일때만 사용 (spring.datasource 대신 datasource.routing.primary/replica 설정)
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("datasource.routing.primary")
+    public HikariDataSource primaryDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.routing.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${datasource.routing.replica-lag-query:}") String lagQuery,
+                                               @Value("${datasource.routing.max-replica-lag-ms:1000}") long maxLagMillis,
+                                               @Value("${datasource.routing.lag-check-interval-ms:1000}") long checkIntervalMillis) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLagMillis, checkIntervalMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicationRoutingDataSource.PRIMARY, primaryDataSource);
+        targets.put(ReplicationRoutingDataSource.REPLICA, replicaDataSource);
+
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+
+        // 트랜잭션 시작 시점이 아니라 첫 sql 실행 시점에 커넥션을 가져와야 readOnly 여부로 라우팅 가능
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.config;
+
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+//작성자/수정자를 엔티티마다가 아니라 트랜잭션당 한번만 조회
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+
+    private final Supplier<String> auditor;
+
+    public TransactionScopedAuditorAware(Supplier<String> auditor) {
+        this.auditor = auditor;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        return Optional.ofNullable(TransactionScopedValues.get(this, auditor));
+    }
+}
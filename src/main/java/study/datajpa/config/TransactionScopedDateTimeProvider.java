@@ -0,0 +1,23 @@
+package study.datajpa.config;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+//등록일/수정일을 트랜잭션 시작 후 처음 요청된 시각 하나로 통일 (엔티티마다 now() 호출x)
+public class TransactionScopedDateTimeProvider implements DateTimeProvider {
+
+    private final Clock clock;
+
+    public TransactionScopedDateTimeProvider(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(TransactionScopedValues.get(this, () -> LocalDateTime.now(clock)));
+    }
+}
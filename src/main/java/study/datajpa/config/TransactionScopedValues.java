@@ -0,0 +1,56 @@
+package study.datajpa.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+//트랜잭션 동안 한번만 계산해서 재사용하는 값 (트랜잭션 밖이면 매번 계산)
+//REQUIRES_NEW 안쪽 트랜잭션은 바깥 값을 보지 않고 따로 계산
+final class TransactionScopedValues {
+
+    private TransactionScopedValues() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(Object key, Supplier<T> loader) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return loader.get();
+        }
+        Optional<T> value = (Optional<T>) TransactionSynchronizationManager.getResource(key);
+        if (value == null) {
+            value = Optional.ofNullable(loader.get()); // null도 한번만 계산 (리소스에는 null을 바인딩할 수 없음)
+            TransactionSynchronizationManager.bindResource(key, value);
+            TransactionSynchronizationManager.registerSynchronization(new ScopedValue(key, value));
+        }
+        return value.orElse(null);
+    }
+
+    //바깥 트랜잭션이 중단되면 값도 내려놓고 재개할 때 다시 바인딩
+    private static class ScopedValue implements TransactionSynchronization {
+
+        private final Object key;
+        private final Object value;
+
+        ScopedValue(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(key);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(key, value);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.config.BlockingQueryExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+//MemberController의 비동기 버전 (member.async.enabled=true)
+//리포지토리 호출은 BlockingQueryExecutor에서 실행하고 서블릿 스레드는 바로 반환
+//다른 스레드에서 실행되므로 OSIV가 없음 -> 지연로딩 없이 dto로 바꿔서 반환
+@RestController
+@RequestMapping("async")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "member.async.enabled", havingValue = "true")
+public class AsyncMemberController {
+
+    private final MemberRepository memberRepository;
+    private final BlockingQueryExecutor queryExecutor;
+
+    @GetMapping("members/{id}")
+    public CompletableFuture<String> findMember(@PathVariable("id") Long id) {
+        return queryExecutor.submit(() -> memberRepository.findById(id)
+                .map(Member::getUsername)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping("members")
+    public CompletableFuture<Page<MemberDto>> list(@PageableDefault(size = 5) Pageable pageable) {
+        return queryExecutor.submit(() -> memberRepository.findAll(pageable).map(m -> new MemberDto(m)));
+    }
+
+    //커넥션 풀보다 많은 요청이 밀리면 대기시키지 않고 503
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> rejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import study.datajpa.repository.LazyLoadDetector;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+//요청 단위 N+1 리포트 - 같은 연관관계를 두번 이상 지연로딩한 요청을 로그로 남김
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LazyLoadReportInterceptor implements HandlerInterceptor {
+
+    private final LazyLoadDetector lazyLoadDetector;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        lazyLoadDetector.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Map<String, Integer> report = lazyLoadDetector.report();
+        if (report.values().stream().anyMatch(count -> count > 1)) {
+            log.info("lazy load report {} {} -> {}", request.getMethod(), request.getRequestURI(), report);
+        }
+        lazyLoadDetector.reset();
+    }
+}
@@ -2,43 +2,79 @@ package study.datajpa.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberWindowDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberNearCache;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberBatchLookup;
 
 import javax.annotation.PostConstruct;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_KEYSET_SIZE = 2000; // max-page-size와 동일
+    private static final int MAX_LOOKUP_SIZE = 10000;
+
     private final MemberRepository memberRepository;
+    private final MemberBatchLookup memberBatchLookup;
+    private final MemberNearCache memberNearCache;
 
     @GetMapping("members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        return memberNearCache.find(id).orElseThrow().getUsername(); // 캐시에 없을 때만 db 조회
     }
 
-    //도메인 클래스 컨버터 - 스프링이 member를 주입해줌 권장하지 않음
+    //도메인 클래스 컨버터 대신 MemberDtoConverter - 스프링이 캐시에서 조회한 dto를 주입해줌
     @GetMapping("members2/{id}")
-    public String findMember2(@PathVariable("id") Member member) {
+    public String findMember2(@PathVariable("id") MemberDto member) {
         return member.getUsername();
     }
 
     @GetMapping("members")
     public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
-        Page<MemberDto> toMap = page.map(m -> new MemberDto(m)); // dto안에서 값을 설정
-        return toMap;
+        return memberRepository.findMemberDtoPage(pageable); // 엔티티 조회 후 page.map 하지 않고 dto로 바로 조회
     }
 
+    //keyset 페이징 - count 쿼리 없이 cursor 다음부터 조회 (깊은 페이지도 일정한 속도)
+    @GetMapping("members/keyset")
+    public MemberWindowDto keysetList(@RequestParam(value = "cursor", required = false) String cursor,
+                                      @RequestParam(value = "size", defaultValue = "5") int size) {
+        Long lastId;
+        try {
+            lastId = MemberWindowDto.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_KEYSET_SIZE);
+        Slice<MemberDto> slice = memberRepository.findMemberDtoByIdAfter(lastId, PageRequest.of(0, pageSize));
+        return MemberWindowDto.of(slice);
+    }
+
+    //username 목록으로 한번에 조회 - 없는 username은 결과에서 빠짐
+    @PostMapping("members/lookup")
+    public List<MemberDto> lookup(@RequestBody List<String> usernames) {
+        if (usernames.size() > MAX_LOOKUP_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "최대 " + MAX_LOOKUP_SIZE + "개까지 조회할 수 있습니다");
+        }
+        return memberBatchLookup.findByNames(usernames);
+    }
 
 //    @PostConstruct
     public void init() {
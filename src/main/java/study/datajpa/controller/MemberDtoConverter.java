@@ -0,0 +1,21 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberNearCache;
+
+//도메인 클래스 컨버터 대신 사용 - 경로의 id를 MemberNearCache에서 MemberDto로 변환
+//엔티티/영속성 컨텍스트 없이 캐시에서 바로 조회, 없는 id는 null (도메인 클래스 컨버터와 같음)
+@Component
+@RequiredArgsConstructor
+public class MemberDtoConverter implements Converter<String, MemberDto> {
+
+    private final MemberNearCache memberNearCache;
+
+    @Override
+    public MemberDto convert(String source) {
+        return memberNearCache.find(Long.valueOf(source)).orElse(null);
+    }
+}
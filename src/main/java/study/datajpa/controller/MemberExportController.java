@@ -0,0 +1,89 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+//회원 전체 내보내기 - 테이블 크기와 상관없이 힙 사용량이 일정하도록 스트리밍으로 응답
+@RestController
+public class MemberExportController {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int CLEAR_INTERVAL = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public MemberExportController(MemberRepository memberRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper) {
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        // StreamingResponseBody는 다른 스레드에서 실행되므로 그 안에서 직접 트랜잭션을 연다
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @GetMapping("members/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write("id,username\n");
+            }
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Member> members = memberRepository.streamAll(FETCH_SIZE, CLEAR_INTERVAL)) {
+                    members.forEach(m -> writeLine(writer, new MemberDto(m), csv));
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(Writer writer, MemberDto dto, boolean csv) {
+        try {
+            if (csv) {
+                writer.write(dto.getId() + "," + csvValue(dto.getUsername()) + "\n");
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+// keyset 페이징 응답 - 다음 페이지는 nextCursor를 그대로 넘겨서 조회 (마지막 페이지면 null)
+@Data
+@AllArgsConstructor
+public class MemberWindowDto {
+
+    private List<MemberDto> content;
+    private String nextCursor;
+
+    public static MemberWindowDto of(Slice<MemberDto> slice) {
+        List<MemberDto> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            nextCursor = encodeCursor(content.get(content.size() - 1).getId());
+        }
+        return new MemberWindowDto(content, nextCursor);
+    }
+
+    // 커서는 클라이언트가 해석하지 못하게 마지막 id를 base64로 감싼다
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L; // 첫 페이지
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
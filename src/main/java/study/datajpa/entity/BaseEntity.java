@@ -11,6 +11,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 
@@ -29,4 +30,8 @@ public class BaseEntity extends BaseTimeEntity{
     //수정자
     @LastModifiedBy
     private String lastModifiedBy;
+
+    //낙관적 락 - 수정할 때마다 증가, 다른 트랜잭션이 먼저 수정했으면 OptimisticLockException
+    @Version
+    private Long version;
 }
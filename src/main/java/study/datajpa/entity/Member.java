@@ -15,10 +15,15 @@ import static javax.persistence.FetchType.*;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"), // username 조회 (파생 쿼리, in 절, 네이티브 쿼리)
+        @Index(name = "idx_member_age", columnList = "age") // 나이 조건 페이징, 벌크 수정
+})
 public class Member extends BaseEntity{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50) // 시퀀스를 50개씩 미리 받아옴 (배치 insert 가능)
     @Column(name = "member_id")
     private Long id;
 
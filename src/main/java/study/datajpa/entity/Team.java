@@ -1,6 +1,9 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -10,15 +13,19 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 자주 바뀌지 않는 팀은 2차 캐시에서 조회 (member.team 프록시 초기화도 캐시 사용)
+public class Team extends BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50) // 시퀀스를 50개씩 미리 받아옴 (배치 insert 가능)
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    @BatchSize(size = 100) // 여러 팀의 members를 in 쿼리 한번으로 초기화
     @OneToMany(mappedBy = "team") // 외래키가 없는 쪽에 mappedBy
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,57 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+//팀별 회원 통계 (회원 수, 나이 합, 10살 단위 나이 분포) - 회원을 읽지 않고 한 row로 조회
+//TeamStatsMaintainer가 회원 저장/삭제/팀 변경/벌크 수정의 변경분을 모아 같은 트랜잭션 커밋 직전에 갱신 (커밋 후에 보임), 엔티티로는 읽기만 함
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(name = "team_stats")
+public class TeamStats {
+
+    public static final int AGE_BUCKETS = 10; // 0~9, 10~19 ... 90 이상
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+    private long ageSum;
+
+    private long ageBucket0;
+    private long ageBucket1;
+    private long ageBucket2;
+    private long ageBucket3;
+    private long ageBucket4;
+    private long ageBucket5;
+    private long ageBucket6;
+    private long ageBucket7;
+    private long ageBucket8;
+    private long ageBucket9;
+
+    public double getAverageAge() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+
+    //index i = i*10살 ~ i*10+9살 회원 수 (마지막은 90살 이상)
+    public long[] getAgeHistogram() {
+        return new long[]{ageBucket0, ageBucket1, ageBucket2, ageBucket3, ageBucket4,
+                ageBucket5, ageBucket6, ageBucket7, ageBucket8, ageBucket9};
+    }
+
+    public static int bucket(int age) {
+        return Math.min(Math.max(age, 0) / 10, AGE_BUCKETS - 1);
+    }
+}
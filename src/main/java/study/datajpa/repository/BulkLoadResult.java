@@ -0,0 +1,32 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+public class BulkLoadResult {
+
+    private final long rows;
+    private final long elapsedNanos;
+
+    public BulkLoadResult(long rows, long elapsedNanos) {
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // 초당 처리 건수
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rows
+                + ", elapsedMs=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                + ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond());
+    }
+}
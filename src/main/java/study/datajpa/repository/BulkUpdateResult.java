@@ -0,0 +1,29 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+public class BulkUpdateResult {
+
+    private final long chunks;
+    private final long rows;
+    private final long retries;
+    private final long elapsedNanos;
+
+    public BulkUpdateResult(long chunks, long rows, long retries, long elapsedNanos) {
+        this.chunks = chunks;
+        this.rows = rows;
+        this.retries = retries;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "chunks=" + chunks
+                + ", rows=" + rows
+                + ", retries=" + retries
+                + ", elapsedMs=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+}
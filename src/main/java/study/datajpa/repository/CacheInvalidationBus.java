@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+import java.util.function.Consumer;
+
+//인스턴스 간 캐시 무효화 이벤트 전달 (member.cache-bus.type=local|multicast)
+//자기가 보낸 이벤트도 받을 수 있으므로 받는 쪽에서 origin으로 걸러야함
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidationEvent event);
+
+    void subscribe(Consumer<CacheInvalidationEvent> listener);
+}
@@ -0,0 +1,53 @@
+package study.datajpa.repository;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.ByteBuffer;
+
+//다른 인스턴스에 보내는 캐시 무효화 이벤트 - 종류(1byte) + id(8byte) + 보낸 노드(8byte) 고정 17byte
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CacheInvalidationEvent {
+
+    public static final int SIZE = 1 + Long.BYTES + Long.BYTES;
+
+    public enum Type {
+        MEMBER,         // 회원 한명 (near cache)
+        MEMBERS,        // 벌크 수정 - 회원 캐시 전부
+        MEMBER_COUNTS,  // 회원 수 (count 캐시)
+        TEAM            // 팀 한개 (2차 캐시 + 팀 이름이 들어있는 near cache)
+    }
+
+    private final Type type;
+    private final long id; // id가 없는 종류는 0
+    private final long origin;
+
+    public CacheInvalidationEvent(Type type, long id, long origin) {
+        this.type = type;
+        this.id = id;
+        this.origin = origin;
+    }
+
+    public byte[] encode() {
+        return ByteBuffer.allocate(SIZE)
+                .put((byte) type.ordinal())
+                .putLong(id)
+                .putLong(origin)
+                .array();
+    }
+
+    public static CacheInvalidationEvent decode(byte[] data, int length) {
+        if (length != SIZE) {
+            throw new IllegalArgumentException("잘못된 무효화 이벤트 크기: " + length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+        int type = buffer.get();
+        if (type < 0 || type >= Type.values().length) {
+            throw new IllegalArgumentException("알 수 없는 무효화 이벤트 종류: " + type);
+        }
+        return new CacheInvalidationEvent(Type.values()[type], buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,186 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.exception.LockAcquisitionException;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.LockTimeoutException;
+import javax.persistence.PessimisticLockException;
+import javax.persistence.QueryTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+//bulkAgePlus를 pk 순서대로 chunkSize 건씩 짧은 트랜잭션으로 나눠서 실행 (한번에 큰 범위를 잠그지 않음)
+//락 대기/타임아웃은 maxRetries 만큼 재시도, 끝나면 호출한 쪽 영속성 컨텍스트에서 수정된 회원만 detach
+//chunk마다 커밋하므로 쓰기 트랜잭션 밖(OSIV 등)에서 호출해야함
+@Slf4j
+@Repository
+public class ChunkedMemberAgeUpdater {
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final TeamStatsMaintainer teamStatsMaintainer;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+
+    public ChunkedMemberAgeUpdater(EntityManager em, EntityManagerFactory emf,
+                                   TeamStatsMaintainer teamStatsMaintainer,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${member.bulk-update.chunk-size:1000}") int chunkSize,
+                                   @Value("${member.bulk-update.max-retries:3}") int maxRetries,
+                                   @Value("${member.bulk-update.retry-backoff-ms:50}") long retryBackoffMillis) {
+        this.em = em;
+        this.emf = emf;
+        this.teamStatsMaintainer = teamStatsMaintainer;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    public BulkUpdateResult bulkAgePlus(int age) {
+        return bulkAgePlus(age, progress -> log.info("member age bulk update {}", progress));
+    }
+
+    // progress는 chunk 하나가 커밋될 때마다 누적 결과로 호출
+    public BulkUpdateResult bulkAgePlus(int age, Consumer<BulkUpdateResult> progress) {
+        long start = System.nanoTime();
+        long lastId = 0;
+        BulkUpdateResult result = new BulkUpdateResult(0, 0, 0, 0);
+        while (true) {
+            long afterId = lastId;
+            ChunkAttempt attempt = executeWithRetry(() -> updateChunk(age, afterId));
+            Chunk chunk = attempt.chunk;
+            if (chunk.ids.isEmpty()) {
+                break;
+            }
+            detachFromCurrentContext(chunk.ids);
+            lastId = chunk.ids.get(chunk.ids.size() - 1);
+            result = new BulkUpdateResult(result.getChunks() + 1, result.getRows() + chunk.updated,
+                    result.getRetries() + attempt.retries, System.nanoTime() - start);
+            progress.accept(result);
+        }
+        return result;
+    }
+
+    // afterId 다음부터 chunkSize 건의 id를 골라 그 row만 수정, 팀 통계 변경분도 같은 chunk 트랜잭션에서 반영
+    // 고른 다음 나이가 기준 아래로 바뀐 row는 잠글 때 다시 확인해서 제외 -> 수정 건수는 update 결과
+    private Chunk updateChunk(int age, long afterId) {
+        return chunkTransaction.execute(status -> {
+            List<Long> ids = em.createQuery("select m.id from Member m" +
+                            " where m.id > :afterId and m.age >= :age order by m.id", Long.class)
+                    .setParameter("afterId", afterId)
+                    .setParameter("age", age)
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return new Chunk(ids, 0);
+            }
+            List<Long> locked = teamStatsMaintainer.membersAgingUp(ids, age); // 아직 age 이상인 row만 잠그고 변경분 기록
+            if (locked.isEmpty()) {
+                return new Chunk(ids, 0);
+            }
+            int updated = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1" +
+                            " where m.id in :ids and m.age >= :age")
+                    .setParameter("ids", locked)
+                    .setParameter("age", age)
+                    .executeUpdate();
+            return new Chunk(ids, updated);
+        });
+    }
+
+    private ChunkAttempt executeWithRetry(ChunkWork work) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Chunk chunk = work.execute();
+                return new ChunkAttempt(chunk == null ? new Chunk(Collections.emptyList(), 0) : chunk, attempt);
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("member age bulk update chunk 재시도 {}/{}: {}", attempt + 1, maxRetries, e.getMessage());
+                sleep(retryBackoffMillis * (attempt + 1));
+            }
+        }
+    }
+
+    // 호출한 쪽 영속성 컨텍스트에 올라와 있는 수정된 회원만 detach (clearAutomatically 처럼 전부 비우지 않음)
+    private void detachFromCurrentContext(List<Long> ids) {
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (current == null) {
+            return;
+        }
+        SessionImplementor session = current.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        for (Long id : ids) {
+            Object entity = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (entity != null) {
+                current.detach(entity);
+            }
+        }
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof PessimisticLockException
+                    || t instanceof LockTimeoutException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof LockAcquisitionException
+                    || t instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("bulk update interrupted", e);
+        }
+    }
+
+    private interface ChunkWork {
+        Chunk execute();
+    }
+
+    // ids: 이번 chunk로 고른 id (다음 chunk 시작 위치), updated: 실제로 수정된 row 수
+    private static class Chunk {
+        private final List<Long> ids;
+        private final int updated;
+
+        Chunk(List<Long> ids, int updated) {
+            this.ids = ids;
+            this.updated = updated;
+        }
+    }
+
+    private static class ChunkAttempt {
+        private final Chunk chunk;
+        private final int retries;
+
+        ChunkAttempt(Chunk chunk, int retries) {
+            this.chunk = chunk;
+            this.retries = retries;
+        }
+    }
+}
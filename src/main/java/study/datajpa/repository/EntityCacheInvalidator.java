@@ -0,0 +1,157 @@
+package study.datajpa.repository;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.CacheInvalidationEvent.Type;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.security.SecureRandom;
+
+//Member/Team 캐시(near cache, count 캐시, Team 2차 캐시) 무효화를 한곳에서 처리
+//이 인스턴스의 캐시를 비우고 CacheInvalidationBus로 다른 인스턴스에 알림, 다른 인스턴스에서 온 이벤트는 캐시만 비움
+//트랜잭션 안에서 호출하면 커밋된 후에 한번 더 비우고 알림 (커밋 전에 비운 사이 다른 요청이 이전 값을 다시 캐시할 수 있음)
+// - Member 수정/삭제, Team 수정/삭제: hibernate 커밋 후 이벤트
+// - 회원 수가 바뀌는 쓰기, 벌크 수정: MemberCountCacheEvictAspect
+// - StatelessSession 수정: StatelessMemberOperations
+@Component
+public class EntityCacheInvalidator implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final long nodeId = new SecureRandom().nextLong();
+
+    private final EntityManagerFactory emf;
+    private final CacheInvalidationBus bus;
+    private final MemberNearCache memberNearCache;
+    private final MemberCountCache memberCountCache;
+    private final TeamCache teamCache;
+
+    public EntityCacheInvalidator(EntityManagerFactory emf,
+                                  CacheInvalidationBus bus,
+                                  MemberNearCache memberNearCache,
+                                  MemberCountCache memberCountCache,
+                                  TeamCache teamCache) {
+        this.emf = emf;
+        this.bus = bus;
+        this.memberNearCache = memberNearCache;
+        this.memberCountCache = memberCountCache;
+        this.teamCache = teamCache;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = HibernateEventListeners.registry(emf);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        bus.subscribe(this::onRemoteEvent);
+    }
+
+    public void memberChanged(Long id) {
+        afterCommit(new CacheInvalidationEvent(Type.MEMBER, id, nodeId));
+    }
+
+    public void membersChanged() {
+        afterCommit(new CacheInvalidationEvent(Type.MEMBERS, 0, nodeId));
+    }
+
+    public void memberCountsChanged() {
+        afterCommit(new CacheInvalidationEvent(Type.MEMBER_COUNTS, 0, nodeId));
+    }
+
+    public void teamChanged(Long id) {
+        afterCommit(new CacheInvalidationEvent(Type.TEAM, id, nodeId));
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    void onRemoteEvent(CacheInvalidationEvent event) {
+        if (event.getOrigin() != nodeId) {
+            evict(event);
+        }
+    }
+
+    private void afterCommit(CacheInvalidationEvent event) {
+        evict(event); // 같은 트랜잭션에서 바로 다시 조회하는 경우
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    private void publish(CacheInvalidationEvent event) {
+        evict(event);
+        bus.publish(event);
+    }
+
+    private void evict(CacheInvalidationEvent event) {
+        switch (event.getType()) {
+            case MEMBER:
+                memberNearCache.invalidate(event.getId());
+                break;
+            case MEMBERS:
+                memberNearCache.invalidateAll();
+                memberCountCache.invalidateAll();
+                break;
+            case MEMBER_COUNTS:
+                memberCountCache.invalidateAll();
+                break;
+            case TEAM:
+                teamCache.evict(event.getId());
+                memberNearCache.invalidateAll(); // 팀 이름이 dto에 들어있음
+                break;
+        }
+    }
+
+    // ---- hibernate 커밋 후 이벤트 ----
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // 롤백 - 바뀐 것이 없음
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // 롤백 - 바뀐 것이 없음
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+
+    private void entityChanged(Object entity, Object id) {
+        if (entity instanceof Member) {
+            publish(new CacheInvalidationEvent(Type.MEMBER, (Long) id, nodeId));
+        } else if (entity instanceof Team) {
+            publish(new CacheInvalidationEvent(Type.TEAM, (Long) id, nodeId));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.repository;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+//영속성 컨텍스트에 로딩된 엔티티 수를 스레드별로 센다 (2차 캐시에서 조립된 엔티티 포함)
+public class EntityLoadCounter implements PostLoadEventListener {
+
+    public static final EntityLoadCounter INSTANCE = new EntityLoadCounter();
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private EntityLoadCounter() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+
+import javax.persistence.EntityManagerFactory;
+
+//하이버네이트 이벤트 리스너 등록 - 내부 구현(SessionFactoryImpl) 대신 SPI(SessionFactoryImplementor)로 꺼낸다
+final class HibernateEventListeners {
+
+    private HibernateEventListeners() {
+    }
+
+    static EventListenerRegistry registry(EntityManagerFactory emf) {
+        return emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+    }
+}
@@ -0,0 +1,143 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//N+1 감지 - 지연로딩(프록시, 컬렉션 초기화)으로 실제 sql이 나간 횟수를 연관관계별로 센다
+//배치 페치나 2차 캐시로 sql 없이 초기화된 경우는 세지 않는다
+//허용 횟수는 트랜잭션마다 (REQUIRES_NEW 안쪽은 따로), 트랜잭션 밖은 스레드 단위 (reset 할 때까지)
+//요청 단위 리포트는 LazyLoadReportInterceptor, 테스트는 member.lazy-load.fail-on-threshold=true
+@Slf4j
+@Component
+public class LazyLoadDetector {
+
+    private static final ThreadLocal<Map<String, Integer>> LOADS = ThreadLocal.withInitial(HashMap::new); // 트랜잭션 밖
+    private static final ThreadLocal<Map<String, Integer>> REPORT = ThreadLocal.withInitial(HashMap::new); // 리포트용 누적
+
+    private final EntityManagerFactory emf;
+    private final int threshold;
+    private final boolean failOnThreshold;
+
+    public LazyLoadDetector(EntityManagerFactory emf,
+                            @Value("${member.lazy-load.threshold:10}") int threshold,
+                            @Value("${member.lazy-load.fail-on-threshold:false}") boolean failOnThreshold) {
+        this.emf = emf;
+        this.threshold = threshold;
+        this.failOnThreshold = failOnThreshold;
+    }
+
+    //이미 등록된 리스너(기본 리스너 + integrator 등)를 모두 감싸서 호출 전후 sql 수 차이를 본다
+    //시작 값은 지역 변수라 예외가 나도 남는 상태가 없음, 이후에 추가되는 리스너는 감싸지 않음 (호출은 그대로 됨)
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = HibernateEventListeners.registry(emf);
+        List<LoadEventListener> loads = registered(registry, EventType.LOAD);
+        registry.setListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            long start = StatementCountInspector.current();
+            for (LoadEventListener load : loads) {
+                load.onLoad(event, loadType);
+            }
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                end(event.getEntityClassName(), start);
+            }
+        });
+        List<InitializeCollectionEventListener> initCollections = registered(registry, EventType.INIT_COLLECTION);
+        registry.setListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+            long start = StatementCountInspector.current();
+            for (InitializeCollectionEventListener initCollection : initCollections) {
+                initCollection.onInitializeCollection(event);
+            }
+            end(event.getCollection().getRole(), start);
+        });
+    }
+
+    // 현재 스레드의 집계를 비움 (요청 시작, 테스트 시작)
+    public void reset() {
+        LOADS.get().clear();
+        REPORT.get().clear();
+    }
+
+    // reset 이후 연관관계별 지연로딩 sql 횟수 (트랜잭션 여러개 포함)
+    public Map<String, Integer> report() {
+        return new HashMap<>(REPORT.get());
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private void end(String role, long start) {
+        if (StatementCountInspector.current() == start) {
+            return; // 이미 로딩되어 있었음
+        }
+        REPORT.get().merge(role, 1, Integer::sum);
+        int count = loads().merge(role, 1, Integer::sum);
+        if (count == threshold + 1) {
+            log.warn("N+1 의심: {} 지연로딩 {}회", role, count);
+        }
+        if (failOnThreshold && count > threshold) {
+            throw new LazyLoadThresholdExceededException(role, count, threshold);
+        }
+    }
+
+    @SuppressWarnings("deprecation") // listeners()는 이벤트 발생용으로는 deprecated, 여기서는 등록 시점에 한번만 읽음
+    private static <T> List<T> registered(EventListenerRegistry registry, EventType<T> type) {
+        List<T> listeners = new ArrayList<>();
+        registry.getEventListenerGroup(type).listeners().forEach(listeners::add);
+        return listeners;
+    }
+
+    //현재 트랜잭션의 집계 - 처음 쓸 때 트랜잭션 리소스로 바인딩하고 끝나면 버림
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> loads() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return LOADS.get();
+        }
+        Map<String, Integer> loads = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (loads == null) {
+            loads = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, loads);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionLoads(loads));
+        }
+        return loads;
+    }
+
+    //REQUIRES_NEW 로 바깥 트랜잭션이 중단되면 집계도 같이 내려놓고 재개할 때 다시 바인딩
+    private class TransactionLoads implements TransactionSynchronization {
+
+        private final Map<String, Integer> loads;
+
+        TransactionLoads(Map<String, Integer> loads) {
+            this.loads = loads;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(LazyLoadDetector.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(LazyLoadDetector.this, loads);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LazyLoadDetector.this);
+        }
+    }
+}
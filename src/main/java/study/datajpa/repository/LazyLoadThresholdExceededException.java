@@ -0,0 +1,8 @@
+package study.datajpa.repository;
+
+public class LazyLoadThresholdExceededException extends RuntimeException {
+
+    public LazyLoadThresholdExceededException(String role, int count, int threshold) {
+        super("N+1 의심: " + role + " 지연로딩 " + count + "회 (허용 " + threshold + "회)");
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+//같은 jvm 안에서만 전달 (인스턴스 하나일 때, 테스트)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<CacheInvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidationEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+}
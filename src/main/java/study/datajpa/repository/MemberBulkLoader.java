@@ -0,0 +1,50 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+
+//대량 회원 저장 - jdbc batch insert + batchSize 마다 flush/clear 해서 영속성 컨텍스트가 커지지 않게함
+//중간에 clear 하므로 호출한 쪽 트랜잭션의 영속성 컨텍스트도 비워진다
+@Slf4j
+@Repository
+public class MemberBulkLoader {
+
+    private final EntityManager em;
+    private final int batchSize;
+
+    public MemberBulkLoader(EntityManager em,
+                            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public BulkLoadResult saveAll(Iterable<Member> members) {
+        long start = System.nanoTime();
+        long count = 0;
+        for (Member member : members) {
+            Team team = member.getTeam();
+            if (team != null && team.getId() == null) { // 아직 저장 안된 팀은 먼저 저장
+                em.persist(team);
+            }
+            em.persist(member);
+
+            if (++count % batchSize == 0) {
+                em.flush(); // 모아둔 insert를 batch로 전송
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        BulkLoadResult result = new BulkLoadResult(count, System.nanoTime() - start);
+        log.info("member bulk load {}", result);
+        return result;
+    }
+}
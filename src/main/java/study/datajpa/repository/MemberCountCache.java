@@ -0,0 +1,58 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+//페이징 count 쿼리 결과 캐시 (쿼리 + 파라미터 별로 ttl 동안 재사용)
+//회원 저장/삭제/벌크 수정 시 MemberCountCacheEvictAspect -> EntityCacheInvalidator 에서 전부 무효화
+@Component
+public class MemberCountCache {
+
+    private final long ttlNanos;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong(); // 무효화 될때마다 증가
+
+    public MemberCountCache(@Value("${member.count-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public long get(String query, LongSupplier countQuery, Object... params) {
+        String key = query + Arrays.toString(params);
+        long now = System.nanoTime();
+        Entry entry = cache.get(key);
+        if (entry != null && entry.generation == generation.get() && now - entry.loadedAt < ttlNanos) {
+            return entry.count;
+        }
+
+        long gen = generation.get();
+        long count = countQuery.getAsLong();
+        if (gen == generation.get()) { // count 하는 도중에 무효화 됐으면 캐시하지 않음
+            cache.put(key, new Entry(count, gen, now));
+        }
+        return count;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private static class Entry {
+        private final long count;
+        private final long generation;
+        private final long loadedAt;
+
+        Entry(long count, long generation, long loadedAt) {
+            this.count = count;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
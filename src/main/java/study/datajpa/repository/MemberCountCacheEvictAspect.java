@@ -0,0 +1,34 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+//회원 수가 바뀌는 쓰기 메서드가 호출되면 count 캐시를 비운다 (다른 인스턴스 포함)
+//벌크 수정은 회원 캐시 전부
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheEvictAspect {
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
+    @AfterReturning("(target(study.datajpa.repository.MemberRepository)" +
+            " || target(study.datajpa.repository.MemberJpaRepository)" +
+            " || target(study.datajpa.repository.MemberBulkLoader)" +
+            " || target(study.datajpa.repository.ChunkedMemberAgeUpdater)" +
+            " || target(study.datajpa.repository.StatelessMemberOperations))" +
+            " && (execution(* save*(..)) || execution(* insert*(..)) || execution(* delete*(..)))")
+    public void evictCounts() {
+        entityCacheInvalidator.memberCountsChanged();
+    }
+
+    @AfterReturning("(target(study.datajpa.repository.MemberRepository)" +
+            " || target(study.datajpa.repository.MemberJpaRepository)" +
+            " || target(study.datajpa.repository.ChunkedMemberAgeUpdater))" +
+            " && execution(* bulkAge*(..))")
+    public void evictMembers() {
+        entityCacheInvalidator.membersChanged();
+    }
+}
@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
@@ -10,19 +11,24 @@ import java.util.Optional;
 
 @Repository
 @AllArgsConstructor
+@Transactional(readOnly = true) // 스프링 데이터 리포지토리(SimpleJpaRepository)와 같이 기본은 읽기 전용, 쓰기만 @Transactional
 public class MemberJpaRepository {
 
     private final EntityManager em;
+    private final TeamStatsMaintainer teamStatsMaintainer;
 
+    @Transactional
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
 
+    @ReadOnlyQuery
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
@@ -33,6 +39,7 @@ public class MemberJpaRepository {
         return Optional.ofNullable(member); // member가 널일수도 있고 아닐수도 있다.
     }
 
+    @ReadOnlyQuery
     public long count() {
         return em.createQuery("select count(m) from Member m", Long.class)
                 .getSingleResult(); // getSingleResult() 하나만 반환할때
@@ -42,6 +49,7 @@ public class MemberJpaRepository {
         return em.find(Member.class, id);
     }
 
+    @ReadOnlyQuery
     public List<Member> findByUsernameAndAgeGreaterThen(String username, int age) {
         return em.createQuery("select m from Member m where m.username = :username and m.age > :age")
                 .setParameter("username", username)
@@ -50,6 +58,7 @@ public class MemberJpaRepository {
     }
 
     //순수 jpa 페이징, 정렬
+    @ReadOnlyQuery
     public List<Member> findByPage(int age, int offset, int limit) {
         return em.createQuery("select m from Member m where m.age = :age order by m.username desc")
                 .setParameter("age", age)
@@ -58,6 +67,7 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    @ReadOnlyQuery
     public long totalCount(int age) {
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                 .setParameter("age", age)
@@ -65,10 +75,15 @@ public class MemberJpaRepository {
     }
 
     //순수 jpa 벌크성 수정 쿼리
+    //이벤트가 없으므로 age 이상인 회원을 잠그고 팀 통계 변경분을 계산한 다음 그 id만 수정
+    @Transactional
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
-                .setParameter("age", age)
+        List<Long> ids = teamStatsMaintainer.membersAgingUp(age);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.id in :ids")
+                .setParameter("ids", ids)
                 .executeUpdate();
-
     }
 }
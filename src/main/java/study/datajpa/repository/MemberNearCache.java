@@ -0,0 +1,60 @@
+package study.datajpa.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberDto;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+
+//id -> MemberDto 로컬 캐시 (GET /members/{id}, /members2/{id})
+//크기 제한 + ttl, 같은 id를 동시에 조회하면 한번만 db 조회 (single-flight)
+//무효화는 EntityCacheInvalidator에서 (Member 수정/삭제, Team 수정 커밋 후, 다른 인스턴스의 이벤트)
+@Component
+public class MemberNearCache {
+
+    private final MemberRepository memberRepository;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Long, MemberDto> cache;
+
+    public MemberNearCache(MemberRepository memberRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${member.near-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${member.near-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.memberRepository = memberRepository;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "member.near"); // cache.gets{result=hit|miss} 등
+    }
+
+    //없는 회원은 캐시하지 않음
+    public Optional<MemberDto> find(Long id) {
+        return Optional.ofNullable(cache.get(id, key -> memberRepository.findMemberDtoById(key).orElse(null)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,159 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//전체 회원을 member_id 범위로 나눠서 병렬로 읽음 (분석용 전체 스캔)
+//chunk마다 읽기 전용 트랜잭션(replica 라우팅)으로 dto 조회, 트랜잭션이 chunk마다 다르므로 조회 시점이 chunk마다 다를 수 있음
+//병렬 스트림은 기본적으로 공용 ForkJoinPool에서 실행 -> 스트림은 밖으로 내보내지 않고 readAll/forEach에서 전용 풀로만 실행
+@Repository
+public class MemberPartitionedReader {
+
+    private static final String RANGE_QUERY = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+            " from Member m left join m.team t" +
+            " where m.id >= :from and m.id < :to order by m.id";
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public MemberPartitionedReader(EntityManager em,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${member.partitioned-read.parallelism:${spring.datasource.hikari.maximum-pool-size:10}}") int parallelism,
+                                   @Value("${member.partitioned-read.chunk-size:1000}") int chunkSize) {
+        this.em = em;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    //id 순서 유지
+    public List<MemberDto> readAll(int partitions) {
+        return inPool(() -> parallelStream(partitions).collect(Collectors.toList()));
+    }
+
+    //action은 여러 스레드에서 동시에 호출됨
+    public void forEach(int partitions, Consumer<MemberDto> action) {
+        inPool(() -> {
+            parallelStream(partitions).forEach(action);
+            return null;
+        });
+    }
+
+    //id 범위를 partitions 개로 나누는 병렬 스트림 - 종료 연산을 부른 스레드의 풀에서 실행되므로 inPool 안에서만 사용
+    private Stream<MemberDto> parallelStream(int partitions) {
+        return StreamSupport.stream(spliterator(partitions), true);
+    }
+
+    private Spliterator<MemberDto> spliterator(int partitions) {
+        Object[] range = readOnlyTransaction.execute(status ->
+                em.createQuery("select min(m.id), max(m.id) from Member m", Object[].class).getSingleResult());
+        if (range[0] == null) {
+            return Stream.<MemberDto>empty().spliterator();
+        }
+        long from = (Long) range[0];
+        long to = (Long) range[1] + 1;
+        long minSplitSize = Math.max(1, (to - from) / Math.max(1, partitions));
+        return new IdRangeSpliterator(from, to, minSplitSize);
+    }
+
+    private <T> T inPool(Supplier<T> task) {
+        try {
+            return pool.submit(task::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    //[from, to) 범위에서 chunkSize개씩 id 순서로 읽음, chunk마다 읽기 전용 트랜잭션
+    private List<MemberDto> readChunk(long from, long to) {
+        return readOnlyTransaction.execute(status -> em.createQuery(RANGE_QUERY, MemberDto.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(chunkSize)
+                .getResultList());
+    }
+
+    //id 범위를 반씩 나누는 Spliterator - 읽기 시작하기 전까지만 나눌 수 있음
+    private class IdRangeSpliterator implements Spliterator<MemberDto> {
+
+        private long from;
+        private final long to;
+        private final long minSplitSize;
+        private Iterator<MemberDto> chunk;
+
+        IdRangeSpliterator(long from, long to, long minSplitSize) {
+            this.from = from;
+            this.to = to;
+            this.minSplitSize = minSplitSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super MemberDto> action) {
+            while (chunk == null || !chunk.hasNext()) {
+                if (from >= to) {
+                    return false;
+                }
+                List<MemberDto> rows = readChunk(from, to);
+                if (rows.isEmpty()) {
+                    from = to;
+                    return false;
+                }
+                from = rows.get(rows.size() - 1).getId() + 1; // 다음 chunk는 마지막 id 다음부터
+                chunk = rows.iterator();
+            }
+            action.accept(chunk.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<MemberDto> trySplit() {
+            if (chunk != null || to - from < minSplitSize * 2) {
+                return null;
+            }
+            long mid = from + (to - from) / 2;
+            IdRangeSpliterator prefix = new IdRangeSpliterator(from, mid, minSplitSize);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from; // id가 비어있을 수 있으므로 최대값
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -9,11 +9,12 @@ import java.util.List;
 
 @Repository
 @RequiredArgsConstructor
+@ReadOnlyQuery // 화면 조회용 쿼리만 모아둔 리포지토리
 public class MemberQueryRepository {
 
     private final EntityManager em;
 
-    List<Member> findAllMembers() {
+    public List<Member> findAllMembers() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
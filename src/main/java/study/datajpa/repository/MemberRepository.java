@@ -17,44 +17,63 @@ import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
+    @ReadOnlyQuery
     List<Member> findByUsernameAndAgeGreaterThan(String userName, int age);
 
 //    @Query(name = "Member.findByUsername") //주석처리해도 동작 순서는 1. named 쿼리 찾기 2. 메소드명으로 쿼리 생성
+    @ReadOnlyQuery
     List<Member> findByUsername(@Param("username") String username);
 
+    @ReadOnlyQuery
     @Query("select m from Member m where m.username = :username and m.age = :age")//
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
     // 값 조회
+    @ReadOnlyQuery
     @Query("select m.username from Member m") 
     List<String> findUsernameList();
 
     //DTO로 조회(new operation 사용해야함 jpql이 제공하는 문법)
+    @ReadOnlyQuery
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    //id로 dto 조회 (MemberNearCache)
+    @ReadOnlyQuery
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t where m.id = :id")
+    Optional<MemberDto> findMemberDtoById(@Param("id") Long id);
+
     //collection타입 in절 조회 (실무에서 많이 사용)
+    @ReadOnlyQuery
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
     //다양한 반환타입
+    @ReadOnlyQuery
     List<Member> findListByUsername(String username); //컬렉션
+    @ReadOnlyQuery
     Member findMember1ByUsername(String username); // 단건
+    @ReadOnlyQuery
     Optional<Member> findOptionalByUsername(String username); // 단건에 Optional
 
     //spring data jpa 페이징과 정렬
+    @ReadOnlyQuery
     @Query(value = "select m from Member m left join m.team t",
             countQuery = "select count(m) from Member m")// count 쿼리 분리 / sort의 경우도 복잡해지면 sort.by 지우고 여기에 추가하면됨
     Page<Member> findByAge(int age, Pageable pageable); // count query사용 (count 쿼리 분리 annotation 설정 안해줄경우)
 //    Slice<Member> findByAge(int age, Pageable pageable); // slice사용
 //    List<Member> findByAge(int age, Pageable pageable); // List로 받기도 가능 제한된 데이터만 보고싶을때
 
-    //spring data jpa bulk update
-    @Modifying(clearAutomatically = true) // 이게 있어야 executeUpdate 실행 / clearAutomatically은 쿼리 나간 후 영속성 컨텍스트 자동으로 clear
-    @Query("Update Member m set m.age = m.age + 1 where m.age >=:age")
-    int bulkAgeplus(@Param("age") int age);
+    //dto로 바로 페이징 - 엔티티를 만들지 않으므로 영속성 컨텍스트/스냅샷 비용 없음, 팀 이름도 같이 조회
+    @ReadOnlyQuery
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    //spring data jpa bulk update -> bulkAgeplus는 MemberRepositoryCustom (팀 통계 변경분을 계산한 회원만 수정)
 
     //N+1 문제 해결 Fetch join
+    @ReadOnlyQuery
     @Query("select m from Member m left join fetch m.team")// member를 조회할 때 연관된 team을 한번에 다 불러옴
     List<Member> findMemberFetchJoin();
 
@@ -64,12 +83,14 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<Member> findAll();
 
     //sqpl 짰는데 fetch join만 추가하고 싶을 경우
+    @ReadOnlyQuery
     @EntityGraph(attributePaths = {"team"})
     @Query("select m from Member m")
     List<Member> findMemberEntityGraph();
 
     //메소드 이름 사용하면서 entitygraph 사용
 //    @EntityGraph(attributePaths = {"team"})
+    @ReadOnlyQuery
     @EntityGraph("Member.all") // @NamedEntityGraph 쓸 경우
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
@@ -77,22 +98,39 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
-    //락
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    //락 - 낙관적 락(@Version), 커밋할 때 버전이 바뀌었으면 예외 -> OptimisticRetryTemplate으로 재시도
+    @Lock(LockModeType.OPTIMISTIC)
     List<Member> findLockByUsername(String username);
 
+    //비관적 락 - select for update, 같은 회원을 수정하는 트랜잭션이 모두 줄을 서게 됨 (비교용)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Member> findPessimisticLockByUsername(String username);
+
     //projections
+    @ReadOnlyQuery
     List<UsernameOnlyDto> findProjectionsByUsername(@Param("username") String username);
 
+    //동적 projections - 반환 타입을 호출할 때 지정 (UsernameOnly.class 등)
+    @ReadOnlyQuery
+    <T> List<T> findProjectionsByAgeGreaterThanEqual(@Param("age") int age, Class<T> type);
+
     //네이티브 쿼리
+    @ReadOnlyQuery
     @Query(value = "select * from member where username=?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
     //네이티브 쿼리 + 프로젝션 - 페이징 가능
+    @ReadOnlyQuery
     @Query(value = "select m.member_id as id, m.username, t.name as teamName" +
             " from member m left join team t",
             countQuery = "select count(*) from member"
             ,nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
 
+    //keyset(seek) 페이징 - offset, count 쿼리 없이 마지막으로 본 id 다음부터 조회 (pageable은 size만 사용, 정렬x)
+    @ReadOnlyQuery
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t" +
+            " where m.id > :lastId order by m.id asc")
+    Slice<MemberDto> findMemberDtoByIdAfter(@Param("lastId") Long lastId, Pageable pageable);
+
 }
@@ -1,9 +1,20 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    Stream<Member> streamAll(int fetchSize, int clearInterval);
+
+    Page<Member> findByAgeWithCountCache(int age, Pageable pageable);
+
+    Page<MemberProjection> findByNativeProjectionWithCountCache(Pageable pageable);
+
+    int bulkAgeplus(int age);
 }
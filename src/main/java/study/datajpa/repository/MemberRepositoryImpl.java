@@ -1,19 +1,141 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
     private final EntityManager em;
+    private final MemberCountCache countCache;
+    private final TeamStatsMaintainer teamStatsMaintainer;
 
+    @ReadOnlyQuery
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    //전체 회원 스트리밍 조회 - 리스트로 다 올리지 않고 forward-only 커서로 fetchSize씩 읽음
+    //clearInterval 건마다 (그 건을 소비한 다음) 영속성 컨텍스트를 비우므로 받은 엔티티는 나중에 준영속이 됨 (지연로딩 사용x)
+    //트랜잭션 안에서 사용하고 스트림은 반드시 close 해야함
+    @Override
+    public Stream<Member> streamAll(int fetchSize, int clearInterval) {
+        if (fetchSize <= 0 || clearInterval <= 0) {
+            throw new IllegalArgumentException("fetchSize, clearInterval은 0보다 커야 합니다: " + fetchSize + ", " + clearInterval);
+        }
+        Stream<Member> rows = em.createQuery("select m from Member m order by m.id", Member.class)
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true) // 스냅샷 만들지 않음
+                .getResultStream(); // 하이버네이트는 ScrollMode.FORWARD_ONLY 로 읽음
+        return StreamSupport.stream(new ClearingSpliterator(rows.spliterator(), clearInterval), false)
+                .onClose(rows::close);
+    }
+
+    //peek은 다음 단계(소비자)보다 먼저 실행되므로 N번째 엔티티가 준영속으로 전달됨
+    //소비자가 처리하고 돌아온 뒤에 clear
+    private class ClearingSpliterator extends Spliterators.AbstractSpliterator<Member> {
+
+        private final Spliterator<Member> source;
+        private final int clearInterval;
+        private long count;
+
+        ClearingSpliterator(Spliterator<Member> source, int clearInterval) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.source = source;
+            this.clearInterval = clearInterval;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Member> action) {
+            if (!source.tryAdvance(action)) {
+                return false;
+            }
+            if (++count % clearInterval == 0) {
+                em.clear();
+            }
+            return true;
+        }
+    }
+
+    //MemberRepository.findByAge와 같은 쿼리 - count는 MemberCountCache에서 재사용
+    @ReadOnlyQuery
+    @Override
+    public Page<Member> findByAgeWithCountCache(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting("select m from Member m left join m.team t", pageable.getSort(), "m");
+        List<Member> content = paging(em.createQuery(jpql, Member.class), pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countCache.get("Member.findByAge",
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult(), age));
+    }
+
+    //MemberRepository.findByNativeProjection와 같은 쿼리 - count는 MemberCountCache에서 재사용
+    @ReadOnlyQuery
+    @Override
+    public Page<MemberProjection> findByNativeProjectionWithCountCache(Pageable pageable) {
+        String sql = QueryUtils.applySorting("select m.member_id as id, m.username, t.name as teamName" +
+                " from member m left join team t", pageable.getSort(), "m");
+        List<Object[]> rows = paging(em.createNativeQuery(sql), pageable).getResultList();
+        List<MemberProjection> content = rows.stream()
+                .map(MemberRepositoryImpl::toProjection)
+                .collect(Collectors.toList());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countCache.get("Member.findByNativeProjection",
+                () -> ((Number) em.createNativeQuery("select count(*) from member").getSingleResult()).longValue()));
+    }
+
+    //spring data jpa bulk update - @Modifying 쿼리 대신 직접 구현 (팀 통계 변경분을 계산한 회원만 수정)
+    //age 이상인 회원을 잠그고 그 id만 수정, 끝나면 영속성 컨텍스트 clear (@Modifying(clearAutomatically = true)와 같이)
+    @Transactional
+    @Override
+    public int bulkAgeplus(int age) {
+        List<Long> ids = teamStatsMaintainer.membersAgingUp(age);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int updated = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.id in :ids") // 벌크 수정도 버전 증가
+                .setParameter("ids", ids)
+                .executeUpdate();
+        em.clear();
+        return updated;
+    }
+
+    private static <Q extends Query> Q paging(Q query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+
+    private static MemberProjection toProjection(Object[] row) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", row[0] == null ? null : ((Number) row[0]).longValue());
+        values.put("username", row[1]);
+        values.put("teamName", row[2]);
+        return PROJECTION_FACTORY.createProjection(MemberProjection.class, values);
+    }
 }
@@ -0,0 +1,102 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+//UDP 멀티캐스트로 전달 - 브로커 없이 같은 네트워크(ttl=1)의 인스턴스끼리 바로 전달
+//유실될 수 있으므로 캐시 ttl이 최대 지연 시간이 됨
+//같은 머신에서 여러 jvm을 띄워도 받을 수 있도록 loopback을 켬 (자기가 보낸 이벤트도 받으므로 EntityCacheInvalidator가 origin으로 거름)
+//networkInterface가 없으면 os 기본 멀티캐스트 인터페이스 사용
+@Slf4j
+public class MulticastCacheInvalidationBus implements CacheInvalidationBus, AutoCloseable {
+
+    private final InetAddress group;
+    private final int port;
+    private final NetworkInterface networkInterface;
+    private final MulticastSocket socket;
+    private final List<Consumer<CacheInvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public MulticastCacheInvalidationBus(String group, int port, int ttl, String networkInterface) throws IOException {
+        this.group = InetAddress.getByName(group);
+        this.port = port;
+        this.networkInterface = networkInterface(networkInterface);
+        this.socket = new MulticastSocket(port); // SO_REUSEADDR - 같은 머신의 여러 jvm이 같은 포트를 사용
+        try {
+            socket.setTimeToLive(ttl);
+            socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            if (this.networkInterface != null) {
+                socket.setOption(StandardSocketOptions.IP_MULTICAST_IF, this.networkInterface);
+            }
+            socket.joinGroup(new InetSocketAddress(this.group, port), this.networkInterface);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+
+        Thread receiver = new Thread(this::receive, "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(CacheInvalidationEvent event) {
+        byte[] data = event.encode();
+        try {
+            socket.send(new DatagramPacket(data, data.length, group, port));
+        } catch (IOException e) {
+            log.warn("캐시 무효화 이벤트 전송 실패 {}", event, e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[CacheInvalidationEvent.SIZE + 1]; // 크기가 다른 패킷 구분
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                CacheInvalidationEvent event = CacheInvalidationEvent.decode(packet.getData(), packet.getLength());
+                listeners.forEach(listener -> listener.accept(event));
+            } catch (Exception e) {
+                if (!socket.isClosed()) {
+                    log.warn("캐시 무효화 이벤트 수신 실패", e);
+                }
+            }
+        }
+    }
+
+    private static NetworkInterface networkInterface(String name) throws SocketException {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        NetworkInterface networkInterface = NetworkInterface.getByName(name);
+        if (networkInterface == null) {
+            throw new SocketException("네트워크 인터페이스가 없습니다: " + name);
+        }
+        return networkInterface;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            socket.leaveGroup(new InetSocketAddress(group, port), networkInterface);
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+//낙관적 락 충돌 시 새 트랜잭션으로 다시 실행 (조회부터 다시 해야 최신 버전을 읽음)
+//시도마다 새 트랜잭션을 열기 때문에 쓰기 트랜잭션 밖에서 호출해야함
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager,
+                                   @Value("${member.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${member.optimistic-retry.backoff-ms:10}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                log.debug("낙관적 락 충돌 재시도 {}/{}", attempt, maxAttempts);
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // 지수 백오프 + 지터 (동시에 충돌한 트랜잭션들이 같은 시점에 다시 부딪히지 않게)
+    private long backoff(int attempt) {
+        long base = backoffMillis << Math.min(attempt - 1, 10);
+        return base / 2 + ThreadLocalRandom.current().nextLong(base + 1);
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("optimistic retry interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+//hibernate 쿼리 플랜 캐시 hit/miss (hibernate.generate_statistics 설정 필요)
+// /actuator/metrics/hibernate.query.plan.cache?tag=result:hit
+@Component
+@RequiredArgsConstructor
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory emf;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = statistics();
+        FunctionCounter.builder("hibernate.query.plan.cache", statistics, Statistics::getQueryPlanCacheHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("hibernate.query.plan.cache", statistics, Statistics::getQueryPlanCacheMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("hibernate.query.plan.cache.hit.ratio", this, QueryPlanCacheMetrics::hitRatio)
+                .register(registry);
+    }
+
+    public double hitRatio() {
+        Statistics statistics = statistics();
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+}
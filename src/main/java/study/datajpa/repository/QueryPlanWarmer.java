@@ -0,0 +1,113 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//시작할 때 리포지토리 쿼리를 미리 컴파일해서 hibernate 쿼리 플랜 캐시를 채움
+//배포 직후 첫 요청들이 jpql 파싱/컴파일 비용을 내지 않도록 웹 서버가 뜨기 전에 실행 (member.query-warmup.enabled)
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.query-warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryPlanWarmer implements SmartInitializingSingleton {
+
+    private static final String WARMUP_USERNAME = "";
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int lookupChunkSize;
+
+    public QueryPlanWarmer(EntityManager em,
+                           EntityManagerFactory emf,
+                           MemberRepository memberRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${member.lookup.chunk-size:256}") int lookupChunkSize) {
+        this.em = em;
+        this.emf = emf;
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.lookupChunkSize = lookupChunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        int queries = readOnlyTransaction.execute(status -> warmUp());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long miss = statistics.getQueryPlanCacheMissCount();
+        log.info("query warm-up {} queries in {}ms (jvm uptime {}ms), plan cache hit {} / miss {} ({}%)",
+                queries, elapsedMs, ManagementFactory.getRuntimeMXBean().getUptime(),
+                hit, miss, hit + miss == 0 ? 0 : hit * 100 / (hit + miss));
+    }
+
+    private int warmUp() {
+        int queries = 0;
+
+        //@Query jpql + count 쿼리 컴파일 (네이티브 쿼리는 플랜 캐시 대상이 아님)
+        for (String jpql : jpqlQueries(MemberRepository.class)) {
+            em.createQuery(jpql);
+            queries++;
+        }
+        em.createNamedQuery("Member.findByUsername", Member.class);
+        em.getEntityGraph("Member.all");
+        queries++;
+
+        //메서드 이름으로 만든 쿼리는 criteria -> jpql로 바뀌어 실행할 때 컴파일되므로 한번씩 실행
+        memberRepository.findByUsername(WARMUP_USERNAME);
+        memberRepository.findListByUsername(WARMUP_USERNAME);
+        memberRepository.findOptionalByUsername(WARMUP_USERNAME);
+        memberRepository.findByUsernameAndAgeGreaterThan(WARMUP_USERNAME, 0);
+        memberRepository.findReadOnlyByUsername(WARMUP_USERNAME);
+        memberRepository.findEntityGraphByUsername(WARMUP_USERNAME);
+        memberRepository.findProjectionsByUsername(WARMUP_USERNAME);
+        queries += 7;
+
+        //in 절은 파라미터 개수마다 플랜이 따로 생김 -> 패딩되는 크기(1, 2, 4 ... chunk-size)만큼 미리 실행
+        for (int size = 1; size <= lookupChunkSize; size <<= 1) {
+            memberRepository.findByNames(Collections.nCopies(size, WARMUP_USERNAME));
+            queries++;
+        }
+        return queries;
+    }
+
+    private static List<String> jpqlQueries(Class<?> repositoryInterface) {
+        List<String> jpql = new ArrayList<>();
+        for (Method method : repositoryInterface.getDeclaredMethods()) {
+            Query query = method.getAnnotation(Query.class);
+            if (query == null || query.nativeQuery()) {
+                continue;
+            }
+            if (StringUtils.hasText(query.value())) {
+                jpql.add(query.value());
+            }
+            if (StringUtils.hasText(query.countQuery())) {
+                jpql.add(query.countQuery());
+            }
+        }
+        return jpql;
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//조회 전용 메서드 - 읽은 엔티티의 스냅샷을 만들지 않고 flush 하지 않음 (ReadOnlyQueryAspect)
+//트랜잭션 밖: readOnly 트랜잭션으로 실행 (읽은 엔티티는 수정해도 반영되지 않음)
+//쓰기 트랜잭션 안: 호출하는 동안만 FlushMode.MANUAL, dto/값을 반환하는 메서드만 읽기 전용 세션
+//                 (엔티티를 반환하면 그 엔티티는 이후 같은 트랜잭션에서 수정할 수 있어야 하므로 일반 엔티티로 읽음)
+//스프링 데이터 리포지토리 인터페이스에서는 메서드에 붙여야함 (인터페이스에만 선언된 쿼리 메서드만 적용됨)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnlyQuery {
+}
@@ -0,0 +1,122 @@
+package study.datajpa.repository;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.EntityType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+//@ReadOnlyQuery 메서드를 읽기 전용으로 실행
+//readOnly 트랜잭션은 스프링(HibernateJpaDialect)이 FlushMode.MANUAL + defaultReadOnly로 세션을 설정해줌
+//이미 쓰기 트랜잭션이 있으면 readOnly 설정이 무시되므로 여기서 직접 세션을 바꿨다가 되돌림
+//쓰기 트랜잭션 안에서는 호출할 때마다 먼저 session.flush() 전체를 실행 (MANUAL 동안 자동 flush가 없으므로)
+// - AUTO flush와 달리 쿼리 대상 테이블과 겹치지 않아도 항상 flush 하므로 변경이 많은 트랜잭션에서 반복 호출하면 비쌈
+//쓰기 트랜잭션 안에서 엔티티를 반환하는 메서드는 읽기 전용 세션으로 바꾸지 않음
+// - 여기서 읽은 엔티티는 트랜잭션이 끝날 때까지 영속성 컨텍스트에 남고 나중에 findById도 같은 인스턴스를 반환하므로
+//   읽기 전용으로 남으면 수정이 조용히 무시되고 @Version 확인도 하지 않음
+@Aspect
+@Component
+public class ReadOnlyQueryAspect {
+
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final DefaultTransactionDefinition readOnlyDefinition = new DefaultTransactionDefinition();
+    private final Map<Method, Boolean> returnsEntities = new ConcurrentHashMap<>();
+    private Set<Class<?>> entityTypes;
+
+    public ReadOnlyQueryAspect(EntityManager em, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.transactionManager = transactionManager;
+        this.readOnlyDefinition.setReadOnly(true);
+    }
+
+    @Around("@annotation(study.datajpa.repository.ReadOnlyQuery) || @within(study.datajpa.repository.ReadOnlyQuery)")
+    public Object readOnly(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return inReadOnlyTransaction(joinPoint);
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return joinPoint.proceed();
+        }
+
+        Session session = em.unwrap(Session.class);
+        FlushMode flushMode = session.getHibernateFlushMode();
+        boolean defaultReadOnly = session.isDefaultReadOnly();
+        if (flushMode != FlushMode.MANUAL) {
+            session.flush(); // MANUAL 동안은 쿼리 전에 자동 flush 되지 않으므로 지금까지 변경을 먼저 반영
+        }
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        if (!returnsEntities(((MethodSignature) joinPoint.getSignature()).getMethod())) {
+            session.setDefaultReadOnly(true); // dto, 값 조회 - 조회 중에 로딩되는 엔티티도 스냅샷 없이
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            session.setHibernateFlushMode(flushMode);
+            session.setDefaultReadOnly(defaultReadOnly);
+        }
+    }
+
+    private Object inReadOnlyTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+        TransactionStatus status = transactionManager.getTransaction(readOnlyDefinition);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+
+    //반환 타입(List<Member>, Optional<Member>, Page<Member> 등의 타입 인자 포함)에 엔티티가 있는지
+    //타입을 알 수 없으면(동적 프로젝션 <T> 등) 엔티티로 봄
+    private boolean returnsEntities(Method method) {
+        return returnsEntities.computeIfAbsent(method,
+                key -> containsEntity(ResolvableType.forMethodReturnType(key)));
+    }
+
+    private boolean containsEntity(ResolvableType type) {
+        Class<?> resolved = type.resolve();
+        if (resolved == null || resolved == Object.class) {
+            return true;
+        }
+        if (type.isArray()) {
+            return containsEntity(type.getComponentType());
+        }
+        if (entityTypes().contains(resolved)) {
+            return true;
+        }
+        for (ResolvableType generic : type.getGenerics()) {
+            if (containsEntity(generic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<Class<?>> entityTypes() {
+        if (entityTypes == null) {
+            entityTypes = em.getMetamodel().getEntities().stream()
+                    .map(EntityType::getJavaType)
+                    .collect(Collectors.toSet());
+        }
+        return entityTypes;
+    }
+}
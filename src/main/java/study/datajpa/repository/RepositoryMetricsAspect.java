@@ -0,0 +1,133 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.event.spi.EventType;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+//리포지토리 메서드별 지표 - 응답시간 히스토그램, 반환 row 수, 실행한 sql 수(N+1 확인), 로딩된 엔티티 수
+//sql 로그 없이 운영에서 계속 켜둘 수 있도록 스레드별 카운터 차이만 기록한다
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final EntityManagerFactory emf;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerListener() {
+        HibernateEventListeners.registry(emf)
+                .appendListeners(EventType.POST_LOAD, EntityLoadCounter.INSTANCE);
+    }
+
+    //리포지토리에 선언된 메서드만 (toString/equals/hashCode 같은 Object 메서드 제외)
+    @Around("target(study.datajpa.repository.MemberRepository)" +
+            " && (execution(* org.springframework.data.repository.Repository+.*(..))" +
+            " || execution(* study.datajpa.repository.MemberRepositoryCustom.*(..)))" +
+            " || execution(public * study.datajpa.repository.MemberJpaRepository.*(..))" +
+            " || execution(public * study.datajpa.repository.TeamJpaRepository.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Meters m = meters.computeIfAbsent(method, key -> createMeters(joinPoint.getTarget(), key));
+
+        long statements = StatementCountInspector.current();
+        long entities = EntityLoadCounter.current();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof Stream) { // 건수는 소비가 끝나고 close 될 때 기록
+                return countRows((Stream<?>) result, m.rows);
+            }
+            long rows = rows(result);
+            if (rows >= 0) {
+                m.rows.record(rows);
+            }
+            return result;
+        } finally {
+            m.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            m.statements.record(StatementCountInspector.current() - statements);
+            m.entities.record(EntityLoadCounter.current() - entities);
+        }
+    }
+
+    private static Stream<?> countRows(Stream<?> stream, DistributionSummary rows) {
+        LongAdder count = new LongAdder();
+        return stream.peek(e -> count.increment())
+                .onClose(() -> rows.record(count.sum()));
+    }
+
+    // 조회 결과 건수, 카운트/벌크 수정처럼 row가 아닌 결과는 -1
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private Meters createMeters(Object target, Method method) {
+        Tags tags = Tags.of("repository", repositoryName(target), "method", method.getName());
+        return new Meters(
+                Timer.builder("repository.calls")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                DistributionSummary.builder("repository.rows").tags(tags).register(registry),
+                DistributionSummary.builder("repository.statements").tags(tags).register(registry),
+                DistributionSummary.builder("repository.entities.loaded").tags(tags).register(registry));
+    }
+
+    private static String repositoryName(Object target) {
+        if (target instanceof MemberRepository) { // spring data jpa 프록시
+            return MemberRepository.class.getSimpleName();
+        }
+        return ClassUtils.getUserClass(target).getSimpleName();
+    }
+
+    private static class Meters {
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final DistributionSummary statements;
+        private final DistributionSummary entities;
+
+        Meters(Timer timer, DistributionSummary rows, DistributionSummary statements, DistributionSummary entities) {
+            this.timer = timer;
+            this.rows = rows;
+            this.statements = statements;
+            this.entities = entities;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package study.datajpa.repository;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+//StatelessSession으로 대량 insert/update/조회 (ETL용) - 1차 캐시, 스냅샷, 변경감지 없이 바로 sql 실행
+//현재 트랜잭션의 커넥션을 그대로 사용하므로 스프링 트랜잭션과 같이 커밋/롤백된다
+//주의
+// - cascade, 지연로딩, 2차 캐시, 엔티티 리스너가 동작하지 않음 -> auditing 값은 여기서 AuditingHandler로 채움
+// - 연관관계는 외래키를 가진 member.team만 저장됨. changeTeam으로 team.members에 추가한 것은 무시 (mappedBy 쪽은 원래 저장 안됨)
+// - stateless로 읽은 team의 members 컬렉션은 초기화할 수 없음 -> 읽은 회원의 팀을 바꿀 때는 changeTeam 대신 setTeam 사용
+// - update는 @Version을 확인하고 증가시킴, 버전이 다르면 StaleStateException
+@Repository
+public class StatelessMemberOperations {
+
+    private final EntityManager em;
+    private final SessionFactory sessionFactory;
+    private final ObjectProvider<AuditingHandler> auditingHandler;
+    private final EntityCacheInvalidator entityCacheInvalidator;
+    private final TeamStatsMaintainer teamStatsMaintainer;
+    private final int batchSize;
+
+    public StatelessMemberOperations(EntityManager em,
+                                     EntityManagerFactory emf,
+                                     ObjectProvider<AuditingHandler> auditingHandler,
+                                     EntityCacheInvalidator entityCacheInvalidator,
+                                     TeamStatsMaintainer teamStatsMaintainer,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.em = em;
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.auditingHandler = auditingHandler;
+        this.entityCacheInvalidator = entityCacheInvalidator;
+        this.teamStatsMaintainer = teamStatsMaintainer;
+        this.batchSize = batchSize;
+    }
+
+    //아직 저장 안된 팀은 먼저 insert
+    //hibernate 이벤트가 없으므로 팀 통계 변경분은 insert 한 회원으로 직접 기록
+    @Transactional
+    public long insertAll(Iterable<Member> members) {
+        return withStatelessSession(session -> {
+            long count = 0;
+            for (Member member : members) {
+                Team team = member.getTeam();
+                if (team != null && team.getId() == null) {
+                    auditingHandler.ifAvailable(handler -> handler.markCreated(team));
+                    session.insert(team);
+                }
+                auditingHandler.ifAvailable(handler -> handler.markCreated(member));
+                session.insert(member);
+                teamStatsMaintainer.memberAdded(team == null ? null : team.getId(), member.getAge());
+                if (++count % batchSize == 0) {
+                    executeBatch(session);
+                }
+            }
+            executeBatch(session);
+            return count;
+        });
+    }
+
+    //준영속 회원의 모든 컬럼을 update (변경감지 없음)
+    //hibernate 이벤트가 없으므로 회원 캐시 무효화를 직접 알림 - 벌크 수정처럼 MEMBERS 하나로 (커밋 후 한번)
+    //팀 통계 변경분은 batch 마다 update 직전에 db의 이전 값을 잠그고 읽어서 계산
+    @Transactional
+    public long updateAll(Iterable<Member> members) {
+        long updated = withStatelessSession(session -> {
+            long count = 0;
+            List<Member> batch = new ArrayList<>(batchSize);
+            for (Member member : members) {
+                batch.add(member);
+                if (batch.size() == batchSize) {
+                    count += update(session, batch);
+                }
+            }
+            return count + update(session, batch);
+        });
+        if (updated > 0) {
+            entityCacheInvalidator.membersChanged();
+        }
+        return updated;
+    }
+
+    //전체 회원을 id 순서로 forward-only 커서로 읽음, 팀은 fetch join (stateless는 지연로딩 불가)
+    //action에 넘어온 회원은 어디에도 보관되지 않으므로 메모리가 일정함
+    @Transactional(readOnly = true)
+    public long scrollAll(int fetchSize, Consumer<Member> action) {
+        return withStatelessSession(session -> {
+            long count = 0;
+            ScrollableResults results = session
+                    .createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    action.accept((Member) results.get(0));
+                    count++;
+                }
+            } finally {
+                results.close();
+            }
+            return count;
+        });
+    }
+
+    private <T> T withStatelessSession(Function<StatelessSession, T> work) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            StatelessSession session = sessionFactory.openStatelessSession(connection);
+            try {
+                return work.apply(session);
+            } finally {
+                session.close();
+            }
+        });
+    }
+
+    private int update(StatelessSession session, List<Member> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        teamStatsMaintainer.membersUpdating(batch);
+        for (Member member : batch) {
+            auditingHandler.ifAvailable(handler -> handler.markModified(member));
+            session.update(member);
+        }
+        executeBatch(session);
+        int count = batch.size();
+        batch.clear();
+        return count;
+    }
+
+    //모아둔 jdbc batch 전송
+    private static void executeBatch(StatelessSession session) {
+        ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+//하이버네이트가 준비하는 sql 수를 스레드별로 센다 (RepositoryMetricsAspect에서 호출 전후 차이로 사용)
+public class StatementCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
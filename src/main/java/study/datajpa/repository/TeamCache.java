@@ -0,0 +1,36 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManagerFactory;
+
+//Team 2차 캐시 제거 / 통계 조회
+@Component
+@RequiredArgsConstructor
+public class TeamCache {
+
+    private final EntityManagerFactory emf;
+
+    public void evict(Long teamId) {
+        emf.getCache().evict(Team.class, teamId);
+    }
+
+    public void evictAll() {
+        emf.getCache().evict(Team.class);
+    }
+
+    public boolean contains(Long teamId) {
+        return emf.getCache().contains(Team.class, teamId);
+    }
+
+    // hit, miss, put 횟수 (hibernate.generate_statistics 설정 필요)
+    public CacheRegionStatistics statistics() {
+        return emf.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(Team.class.getName());
+    }
+}
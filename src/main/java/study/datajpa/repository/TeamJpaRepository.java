@@ -2,8 +2,10 @@ package study.datajpa.repository;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.entity.TeamStats;
 
 import javax.persistence.EntityManager;
 import java.util.List;
@@ -11,19 +13,23 @@ import java.util.Optional;
 
 @Repository
 @AllArgsConstructor
+@Transactional(readOnly = true)
 public class TeamJpaRepository {
 
     public final EntityManager em;
 
+    @Transactional
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    @Transactional
     public void delete(Team team) {
         em.remove(team);
     }
 
+    @ReadOnlyQuery
     public List<Team> findAll() {
         return em.createQuery("select t from Team t", Team.class)
                 .getResultList();
@@ -34,11 +40,22 @@ public class TeamJpaRepository {
         return Optional.ofNullable(team); // 널일수도 있고 아닐수도 있다.
     }
 
+    @ReadOnlyQuery
     public long count() {
         return em.createQuery("select count(t) from Team t", Long.class)
                 .getSingleResult(); // getSingleResult() 하나만 반환할때
     }
 
+    //팀 통계 (TeamStatsMaintainer가 유지), 다시 조회하면 최신 값을 읽도록 준영속으로 반환
+    @ReadOnlyQuery
+    public Optional<TeamStats> findStats(Long teamId) {
+        TeamStats stats = em.find(TeamStats.class, teamId);
+        if (stats != null) {
+            em.detach(stats);
+        }
+        return Optional.ofNullable(stats);
+    }
+
     public Team find(Long id) {
         return em.find(Team.class, id);
     }
@@ -0,0 +1,407 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.TeamStats;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+//team_stats(TeamStats) 갱신 - 회원 수/나이 변경분을 트랜잭션(세션)마다 팀별로 모아뒀다가 커밋 직전에 팀마다 update 한번 (jdbc batch)
+// - 엔티티 insert/update/delete: hibernate 이벤트
+// - 벌크 jpql 수정(bulkAge*): 대상 회원을 잠그고 읽어서 변경분 계산, 수정은 잠근 id로만 (ChunkedMemberAgeUpdater는 chunk 트랜잭션마다)
+// - StatelessSession 작업: StatelessMemberOperations가 쓰는 row로 변경분 계산
+//team_stats row 락은 커밋 직전부터 커밋까지만 잡고, 팀 id 순서로 잡으므로 서로 교착되지 않음
+//rebuild(전체 재계산)는 관리용 - 쓰기 경로에서는 사용하지 않음
+@Slf4j
+@Component
+public class TeamStatsMaintainer implements PostInsertEventListener, PreUpdateEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String UPDATE_SQL = updateSql();
+    private static final String REBUILD_SQL = rebuildSql();
+
+    private final EntityManagerFactory emf;
+    private final EntityManager em;
+    private final TransactionTemplate rebuildTransaction;
+    private final Map<SessionImplementor, Deltas> pending = new ConcurrentHashMap<>();
+
+    public TeamStatsMaintainer(EntityManagerFactory emf, EntityManager em, PlatformTransactionManager transactionManager) {
+        this.emf = emf;
+        this.em = em;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = HibernateEventListeners.registry(emf);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    // ---- 이벤트가 없는 쓰기 (현재 트랜잭션에 변경분 추가) ----
+
+    public void memberAdded(Long teamId, int age) {
+        deltas(currentSession()).add(teamId, age, 1);
+    }
+
+    //age 이상인 회원의 나이 +1 직전에 호출 (MemberRepository.bulkAgeplus, MemberJpaRepository.bulkAgePlus)
+    //대상 회원을 잠그고 읽어서 변경분을 기록하고 그 id를 반환 -> 호출한 쪽은 이 id만 수정
+    //(age 조건으로 다시 수정하면 그 사이 들어온/나이가 바뀐 회원(phantom)이 변경분 없이 수정됨)
+    public List<Long> membersAgingUp(int age) {
+        SessionImplementor session = currentSession();
+        session.flush(); // 아직 반영 안된 나이/팀 변경을 먼저 db에 (이벤트로 따로 계산됨)
+        Deltas deltas = deltas(session);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select member_id, team_id, age from member where age >= ? for update")) {
+                statement.setInt(1, age);
+                return agingUp(statement, deltas);
+            }
+        });
+    }
+
+    //ids 중 아직 age 이상인 회원만 (ChunkedMemberAgeUpdater chunk)
+    public List<Long> membersAgingUp(Collection<Long> ids, int age) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        SessionImplementor session = currentSession();
+        session.flush();
+        Deltas deltas = deltas(session);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select member_id, team_id, age from member where member_id in (" + placeholders(ids.size()) + ")" +
+                            " and age >= ? for update")) {
+                setLongs(statement, ids);
+                statement.setInt(ids.size() + 1, age);
+                return agingUp(statement, deltas);
+            }
+        });
+    }
+
+    //준영속 회원을 그대로 update 하기 직전에 호출 (StatelessMemberOperations.updateAll) - db의 이전 값을 잠그고 읽음
+    public void membersUpdating(Collection<Member> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        SessionImplementor session = currentSession();
+        Deltas deltas = deltas(session);
+        List<Long> ids = new ArrayList<>();
+        members.forEach(m -> ids.add(m.getId()));
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select team_id, age from member where member_id in (" + placeholders(ids.size()) + ") for update")) {
+                setLongs(statement, ids);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        deltas.add(teamId(rs), rs.getInt(2), -1);
+                    }
+                }
+            }
+        });
+        members.forEach(m -> deltas.add(teamId(m.getTeam()), m.getAge(), 1));
+    }
+
+    //관리용 전체 재계산 - 회원 테이블로 모든 팀의 통계를 다시 만듦 O(회원 수)
+    //먼저 team_stats 전체를 잠금 -> 변경분을 반영 중인 트랜잭션은 커밋될 때까지 기다리고, 아직 커밋 전인 트랜잭션은 재계산 다음에 반영
+    public void rebuild() {
+        rebuildTransaction.executeWithoutResult(status -> em.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeQuery("select team_id from team_stats for update").close();
+                statement.executeUpdate(REBUILD_SQL);
+                statement.executeUpdate("delete from team_stats where team_id not in (select team_id from team)");
+            }
+        }));
+        log.info("team_stats 재계산 완료");
+    }
+
+    // ---- hibernate 이벤트 ----
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Team) {
+            deltas(event.getSession()).created((Long) event.getId());
+        } else if (event.getEntity() instanceof Member) {
+            Object[] state = event.getState();
+            deltas(event.getSession()).add(teamId(state[index(event.getPersister(), "team")]),
+                    (Integer) state[index(event.getPersister(), "age")], 1);
+        }
+    }
+
+    //스냅샷 없이 update 되는 경우(이전 값을 모름) db의 이전 값을 읽어둠
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        if (event.getEntity() instanceof Member && event.getOldState() == null) {
+            Deltas deltas = deltas(event.getSession());
+            event.getSession().doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "select team_id, age from member where member_id = ?")) {
+                    statement.setLong(1, (Long) event.getId());
+                    try (ResultSet rs = statement.executeQuery()) {
+                        if (rs.next()) {
+                            deltas.add(teamId(rs), rs.getInt(2), -1);
+                        }
+                    }
+                }
+            });
+        }
+        return false; // 취소하지 않음
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        int teamIndex = index(event.getPersister(), "team");
+        int ageIndex = index(event.getPersister(), "age");
+        Long newTeamId = teamId(event.getState()[teamIndex]);
+        int newAge = (Integer) event.getState()[ageIndex];
+        Deltas deltas = deltas(event.getSession());
+        if (event.getOldState() == null) { // 이전 값은 onPreUpdate에서 뺐음
+            deltas.add(newTeamId, newAge, 1);
+            return;
+        }
+        Long oldTeamId = teamId(event.getOldState()[teamIndex]);
+        int oldAge = (Integer) event.getOldState()[ageIndex];
+        if (!Objects.equals(oldTeamId, newTeamId) || oldAge != newAge) {
+            deltas.add(oldTeamId, oldAge, -1);
+            deltas.add(newTeamId, newAge, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Team) {
+            deltas(event.getSession()).deleted((Long) event.getId());
+        } else if (event.getEntity() instanceof Member) {
+            Object[] state = event.getDeletedState();
+            deltas(event.getSession()).add(teamId(state[index(event.getPersister(), "team")]),
+                    (Integer) state[index(event.getPersister(), "age")], -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false; // 커밋 직전에 같은 트랜잭션에서 반영
+    }
+
+    // ---- 변경분 모으기 / 반영 ----
+
+    private SessionImplementor currentSession() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("team_stats 변경분은 트랜잭션 안에서만 기록할 수 있습니다");
+        }
+        return em.unwrap(SessionImplementor.class);
+    }
+
+    //세션의 현재 트랜잭션 변경분 - 처음 기록할 때 커밋 직전(마지막 flush 다음)/완료 후 처리를 등록
+    private Deltas deltas(SessionImplementor session) {
+        return pending.computeIfAbsent(session, key -> {
+            Deltas deltas = new Deltas();
+            key.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> apply(completing, deltas));
+            key.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> pending.remove(key));
+            return deltas;
+        });
+    }
+
+    private void apply(SessionImplementor session, Deltas deltas) {
+        pending.remove(session);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            List<Long> missing = update(connection, deltas.changes.keySet(), deltas);
+            if (!missing.isEmpty()) { // 통계 row가 없는 팀 (새 팀, 마이그레이션 이전 팀)
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "merge into team_stats (team_id) key (team_id) values (?)")) {
+                    for (Long teamId : missing) {
+                        statement.setLong(1, teamId);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                update(connection, missing, deltas);
+            }
+            if (!deltas.deletedTeams.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement("delete from team_stats where team_id = ?")) {
+                    for (Long teamId : deltas.deletedTeams) {
+                        statement.setLong(1, teamId);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    //팀마다 update 한번을 batch로 전송, 수정된 row가 없는 팀 반환
+    private static List<Long> update(Connection connection, Collection<Long> teamIds, Deltas deltas) throws SQLException {
+        if (teamIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ordered = new ArrayList<>(teamIds);
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            for (Long teamId : ordered) {
+                long[] change = deltas.changes.get(teamId);
+                for (int i = 0; i < change.length; i++) {
+                    statement.setLong(i + 1, change[i]);
+                }
+                statement.setLong(change.length + 1, teamId);
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            List<Long> missing = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    missing.add(ordered.get(i));
+                }
+            }
+            return missing;
+        }
+    }
+
+    private static List<Long> agingUp(PreparedStatement statement, Deltas deltas) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+                long teamId = rs.getLong(2);
+                if (rs.wasNull()) {
+                    continue; // 팀 없는 회원
+                }
+                int age = rs.getInt(3);
+                deltas.add(teamId, age, -1);
+                deltas.add(teamId, age + 1, 1);
+            }
+        }
+        return ids;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static void setLongs(PreparedStatement statement, Collection<Long> values) throws SQLException {
+        int index = 1;
+        for (Long value : values) {
+            statement.setLong(index++, value);
+        }
+    }
+
+    private static int index(EntityPersister persister, String property) {
+        return persister.getEntityMetamodel().getPropertyIndex(property);
+    }
+
+    private static Long teamId(ResultSet rs) throws SQLException {
+        long teamId = rs.getLong(1);
+        return rs.wasNull() ? null : teamId;
+    }
+
+    private static Long teamId(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) { // 초기화하지 않고 id만
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+
+    private static String updateSql() {
+        StringBuilder sql = new StringBuilder("update team_stats set member_count = member_count + ?, age_sum = age_sum + ?");
+        for (int i = 0; i < TeamStats.AGE_BUCKETS; i++) {
+            sql.append(", age_bucket").append(i).append(" = age_bucket").append(i).append(" + ?");
+        }
+        return sql.append(" where team_id = ?").toString();
+    }
+
+    private static String rebuildSql() {
+        StringBuilder columns = new StringBuilder("team_id, member_count, age_sum");
+        StringBuilder select = new StringBuilder("t.team_id, count(m.member_id), coalesce(sum(m.age), 0)");
+        for (int i = 0; i < TeamStats.AGE_BUCKETS; i++) {
+            columns.append(", age_bucket").append(i);
+            String condition = i == 0 ? "m.age < 10"
+                    : i == TeamStats.AGE_BUCKETS - 1 ? "m.age >= " + i * 10
+                    : "m.age >= " + i * 10 + " and m.age < " + (i + 1) * 10;
+            select.append(", sum(case when ").append(condition).append(" then 1 else 0 end)");
+        }
+        return "merge into team_stats (" + columns + ") key (team_id)" +
+                " select " + select +
+                " from team t left join member m on m.team_id = t.team_id" +
+                " group by t.team_id";
+    }
+
+    //팀 id 순서(TreeMap)로 모아서 반영 순서가 항상 같음
+    //변경분 배열: [회원 수, 나이 합, 나이대0 ... 나이대9]
+    private static class Deltas {
+
+        private final Map<Long, long[]> changes = new TreeMap<>();
+        private final Set<Long> deletedTeams = new TreeSet<>();
+
+        void add(Long teamId, int age, int sign) {
+            if (teamId == null || deletedTeams.contains(teamId)) {
+                return; // 팀 없는 회원, 같은 트랜잭션에서 삭제된 팀
+            }
+            long[] change = changes.computeIfAbsent(teamId, key -> new long[2 + TeamStats.AGE_BUCKETS]);
+            change[0] += sign;
+            change[1] += (long) sign * age;
+            change[2 + TeamStats.bucket(age)] += sign;
+        }
+
+        void created(Long teamId) {
+            changes.computeIfAbsent(teamId, key -> new long[2 + TeamStats.AGE_BUCKETS]); // 0인 row
+        }
+
+        void deleted(Long teamId) {
+            changes.remove(teamId);
+            deletedTeams.add(teamId);
+        }
+
+        boolean isEmpty() {
+            return changes.isEmpty() && deletedTeams.isEmpty();
+        }
+    }
+}
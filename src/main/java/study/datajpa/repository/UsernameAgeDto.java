@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+//UsernameOnly의 닫힌(closed) 버전 - username, age 컬럼만 생성자로 조회하고
+//row마다 프록시 + SpEL 평가 대신 일반 메서드로 같은 값을 만든다
+public class UsernameAgeDto implements UsernameOnly {
+
+    private final String username;
+    private final int age;
+
+    public UsernameAgeDto(String username, int age) {
+        this.username = username;
+        this.age = age;
+    }
+
+    @Override
+    public String getUsername() {
+        return username + " " + age; // UsernameOnly의 "#{target.username + ' ' + target.age}"와 같은 결과
+    }
+}
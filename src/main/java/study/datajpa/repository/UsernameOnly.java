@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import org.springframework.beans.factory.annotation.Value;
 
+//열린(open) 프로젝션 - 엔티티 전체를 조회한 뒤 row마다 SpEL 평가, 대량 조회는 UsernameAgeDto 사용
 public interface UsernameOnly {
 
     @Value("#{target.username + ' ' + target.age}") // username, age 가져옴
@@ -0,0 +1,105 @@
+package study.datajpa.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.BlockingQueryExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+//username 여러개를 findByNames로 한번에 조회
+//in 절 크기가 호출마다 달라지면 쿼리 플랜 캐시/db statement 캐시가 오염되므로
+//고정 크기(chunk-size)로 나누고 각 chunk는 hibernate가 2의 거듭제곱 크기로 패딩 (in_clause_parameter_padding)
+//chunk는 호출당 최대 parallelism 개의 작업으로 묶어 BlockingQueryExecutor에서 실행 (한 요청이 커넥션 풀을 다 쓰지 않도록)
+//각 작업은 읽기 전용 트랜잭션(replica 라우팅), 대기열이 가득 차면 호출한 스레드에서 실행
+//호출한 쪽에 트랜잭션이 있으면 그 트랜잭션 안에서 순서대로 조회 (같은 커넥션/스냅샷, 아직 커밋 안된 변경 포함)
+@Service
+public class MemberBatchLookup {
+
+    private final MemberRepository memberRepository;
+    private final BlockingQueryExecutor queryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public MemberBatchLookup(MemberRepository memberRepository,
+                             BlockingQueryExecutor queryExecutor,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${member.lookup.chunk-size:256}") int chunkSize,
+                             @Value("${member.lookup.parallelism:4}") int parallelism) {
+        this.memberRepository = memberRepository;
+        this.queryExecutor = queryExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    public List<MemberDto> findByNames(Collection<String> names) {
+        List<String> distinct = names.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        if (chunks.size() == 1 || parallelism <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return lookupAll(chunks);
+        }
+
+        //chunk i는 작업 i % lanes 에서 순서대로 조회
+        int lanes = Math.min(parallelism, chunks.size());
+        List<List<List<String>>> laneChunks = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            laneChunks.add(new ArrayList<>());
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            laneChunks.get(i % lanes).add(chunks.get(i));
+        }
+        List<CompletableFuture<List<MemberDto>>> futures = laneChunks.stream()
+                .map(lane -> queryExecutor.submit(() -> readOnlyTransaction.execute(status -> lookupAll(lane))))
+                .collect(Collectors.toList());
+
+        List<MemberDto> result = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            result.addAll(join(futures.get(lane), laneChunks.get(lane)));
+        }
+        return result;
+    }
+
+    private List<MemberDto> join(CompletableFuture<List<MemberDto>> future, List<List<String>> chunks) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return readOnlyTransaction.execute(status -> lookupAll(chunks));
+            }
+            throw e;
+        }
+    }
+
+    private List<MemberDto> lookupAll(List<List<String>> chunks) {
+        List<MemberDto> result = new ArrayList<>();
+        for (List<String> chunk : chunks) {
+            memberRepository.findByNames(chunk).forEach(m -> result.add(new MemberDto(m)));
+        }
+        return result;
+    }
+}
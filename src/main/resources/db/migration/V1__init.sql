@@ -0,0 +1,35 @@
+-- Member, Team 초기 스키마 (이전 ddl-auto: create 결과 + 조회 조건 인덱스)
+
+create sequence member_seq start with 1 increment by 50;
+create sequence team_seq start with 1 increment by 50;
+
+create table team (
+    team_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    version bigint default 0 not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    version bigint default 0 not null, -- @Version, 벌크 수정의 version + 1이 null로 남지 않도록
+    age integer not null,
+    username varchar(255),
+    team_id bigint,
+    primary key (member_id)
+);
+
+alter table member add constraint fk_member_team foreign key (team_id) references team;
+
+-- findByUsername, findListByUsername, findLockByUsername, findByNames, findByNativeQuery
+create index idx_member_username on member (username);
+-- findProjectionsByAgeGreaterThanEqual, bulkAgeplus
+create index idx_member_age on member (age);
@@ -0,0 +1,35 @@
+-- 팀별 회원 통계 (TeamStats) + 기존 데이터로 채움
+
+create table team_stats (
+    team_id bigint not null,
+    member_count bigint default 0 not null,
+    age_sum bigint default 0 not null,
+    age_bucket0 bigint default 0 not null,
+    age_bucket1 bigint default 0 not null,
+    age_bucket2 bigint default 0 not null,
+    age_bucket3 bigint default 0 not null,
+    age_bucket4 bigint default 0 not null,
+    age_bucket5 bigint default 0 not null,
+    age_bucket6 bigint default 0 not null,
+    age_bucket7 bigint default 0 not null,
+    age_bucket8 bigint default 0 not null,
+    age_bucket9 bigint default 0 not null,
+    primary key (team_id)
+);
+
+insert into team_stats (team_id, member_count, age_sum,
+                        age_bucket0, age_bucket1, age_bucket2, age_bucket3, age_bucket4,
+                        age_bucket5, age_bucket6, age_bucket7, age_bucket8, age_bucket9)
+select t.team_id, count(m.member_id), coalesce(sum(m.age), 0),
+       sum(case when m.age < 10 then 1 else 0 end),
+       sum(case when m.age >= 10 and m.age < 20 then 1 else 0 end),
+       sum(case when m.age >= 20 and m.age < 30 then 1 else 0 end),
+       sum(case when m.age >= 30 and m.age < 40 then 1 else 0 end),
+       sum(case when m.age >= 40 and m.age < 50 then 1 else 0 end),
+       sum(case when m.age >= 50 and m.age < 60 then 1 else 0 end),
+       sum(case when m.age >= 60 and m.age < 70 then 1 else 0 end),
+       sum(case when m.age >= 70 and m.age < 80 then 1 else 0 end),
+       sum(case when m.age >= 80 and m.age < 90 then 1 else 0 end),
+       sum(case when m.age >= 90 then 1 else 0 end)
+from team t left join member m on m.team_id = t.team_id
+group by t.team_id;
@@ -0,0 +1,72 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BlockingQueryExecutorTest {
+
+    BlockingQueryExecutor executor = new BlockingQueryExecutor(1, 1); // 실행 1 + 대기 1
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void admissionLimit() throws Exception {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            return "running";
+        });
+        CompletableFuture<String> waiting = executor.submit(() -> "waiting");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //when
+        CompletableFuture<String> rejected = executor.submit(() -> "rejected"); // 실행 + 대기가 가득 참
+
+        //then
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(waiting).isNotDone();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("waiting");
+        assertThat(executor.submit(() -> "again").get(5, TimeUnit.SECONDS)).isEqualTo("again"); // 끝나면 자리가 반환됨
+    }
+
+    @Test
+    public void failedWorkReleasesAdmission() throws Exception {
+        //given
+        CompletableFuture<String> failed = executor.submit(() -> {
+            throw new IllegalStateException("db 오류");
+        });
+
+        //then
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(executor.submit(() -> "a").get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(executor.submit(() -> "b").get(5, TimeUnit.SECONDS)).isEqualTo("b");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
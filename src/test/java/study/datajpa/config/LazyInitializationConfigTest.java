@@ -0,0 +1,43 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+//fast-startup 프로파일처럼 지연 초기화여도 리스너 빈은 시작할 때 만들어짐
+@SpringBootTest(properties = "spring.main.lazy-initialization=true")
+class LazyInitializationConfigTest {
+
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    @Test
+    public void eventListenerBeansAreCreatedAtStartup() {
+        //then - 아무 빈도 사용하기 전
+        assertThat(context.getBeanFactory().containsSingleton("teamStatsMaintainer")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("entityCacheInvalidator")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("lazyLoadDetector")).isTrue();
+
+        //when
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        Team team = teamRepository.save(new Team("lazyInitTeam"));
+        Member member = memberRepository.save(new Member("lazyInitMember", 41, team));
+
+        //then
+        Long count = context.getBean(JdbcTemplate.class)
+                .queryForObject("select member_count from team_stats where team_id = ?", Long.class, team.getId());
+        assertThat(count).isEqualTo(1);
+
+        memberRepository.delete(member);
+        teamRepository.delete(team);
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+//primary, replica 역할의 내장 h2 두개로 라우팅 확인
+@SpringBootTest(properties = {
+        "datasource.routing.enabled=true",
+        "datasource.routing.primary.jdbc-url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datasource.routing.primary.username=sa",
+        "datasource.routing.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datasource.routing.replica.username=sa",
+        "member.query-warmup.enabled=false"}) // 마이그레이션은 primary에만 적용되므로 replica 조회 없이 시작
+class ReplicationRoutingDataSourceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @Test
+    public void routing() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertThat(readOnly.execute(status -> currentDatabase())).isEqualToIgnoringCase("replica");
+        assertThat(readWrite.execute(status -> currentDatabase())).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    public void replicaLagFallback() {
+        ReplicaLagMonitor lagging = new ReplicaLagMonitor(replicaDataSource, "select 5000", 1000, 0);
+        ReplicaLagMonitor upToDate = new ReplicaLagMonitor(replicaDataSource, "select 10", 1000, 0);
+
+        assertThat(lagging.isReplicaAvailable()).isFalse();
+        assertThat(upToDate.isReplicaAvailable()).isTrue();
+    }
+
+    private String currentDatabase() {
+        return (String) em.createNativeQuery("select database()").getSingleResult();
+    }
+}
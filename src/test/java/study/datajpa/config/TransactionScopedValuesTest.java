@@ -0,0 +1,75 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransactionScopedValuesTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    AuditorAware<String> auditorAware;
+
+    @Test
+    public void requiresNewGetsItsOwnValues() {
+        //given
+        TransactionScopedDateTimeProvider dateTimeProvider = new TransactionScopedDateTimeProvider(new TickingClock());
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            String outerAuditor = auditorAware.getCurrentAuditor().orElseThrow();
+            TemporalAccessor outerNow = dateTimeProvider.getNow().orElseThrow();
+
+            //when
+            Object[] innerValues = inner.execute(innerStatus -> new Object[]{
+                    auditorAware.getCurrentAuditor().orElseThrow(),
+                    dateTimeProvider.getNow().orElseThrow(),
+                    dateTimeProvider.getNow().orElseThrow()});
+
+            //then
+            assertThat(innerValues[0]).isNotEqualTo(outerAuditor);
+            assertThat(innerValues[1]).isNotEqualTo(outerNow);
+            assertThat(innerValues[2]).isEqualTo(innerValues[1]); // 안쪽 트랜잭션 안에서는 같은 값
+            assertThat(auditorAware.getCurrentAuditor()).contains(outerAuditor); // 재개 후 바깥 값 그대로
+            assertThat(dateTimeProvider.getNow()).contains(outerNow);
+        });
+    }
+
+    //호출할 때마다 1초씩 가는 시계
+    private static class TickingClock extends Clock {
+
+        private final AtomicLong seconds = new AtomicLong();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochSecond(seconds.incrementAndGet());
+        }
+    }
+}
@@ -12,6 +12,7 @@ import javax.persistence.EntityManager;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -83,4 +84,35 @@ class MemberTest {
         System.out.println("member.getLastModifiedBy = " + member.getLastModifiedBy());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void auditingPerTransaction() throws Exception {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Thread.sleep(10);
+        Member member2 = memberRepository.save(new Member("member2", 20));
+
+        //then 같은 트랜잭션은 작성자, 시각을 공유
+        assertThat(member1.getCreatedBy()).isEqualTo(member2.getCreatedBy());
+        assertThat(member1.getCreatedDate()).isEqualTo(member2.getCreatedDate());
+    }
+
+    @Test
+    public void noChangeNoUpdate() throws Exception {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        em.flush();
+        em.clear();
+        Member findMember = memberRepository.findById(member1.getId()).get();
+
+        //when 바뀐 값 없이 저장
+        memberRepository.save(findMember);
+        em.flush();
+        em.clear();
+
+        //then 수정일, 버전이 그대로 (update 쿼리가 나가지 않음)
+        Member result = memberRepository.findById(member1.getId()).get();
+        assertThat(result.getLastModifiedDate()).isEqualTo(findMember.getLastModifiedDate());
+        assertThat(result.getVersion()).isEqualTo(findMember.getVersion());
+    }
+
+}
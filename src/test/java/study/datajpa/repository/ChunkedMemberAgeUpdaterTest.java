@@ -0,0 +1,52 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+//chunk마다 커밋하므로 테스트 트랜잭션 없이 실행
+@SpringBootTest(properties = "member.bulk-update.chunk-size=2")
+class ChunkedMemberAgeUpdaterTest {
+
+    @Autowired
+    ChunkedMemberAgeUpdater chunkedMemberAgeUpdater;
+    @Autowired
+    MemberRepository memberRepository;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(members.stream().map(Member::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void bulkAgePlus() {
+        //given
+        members.add(memberRepository.save(new Member("member1", 1010)));
+        members.add(memberRepository.save(new Member("member2", 1019)));
+        members.add(memberRepository.save(new Member("member3", 1020)));
+        members.add(memberRepository.save(new Member("member4", 1021)));
+        members.add(memberRepository.save(new Member("member5", 1040)));
+        List<BulkUpdateResult> progress = new ArrayList<>();
+
+        //when
+        BulkUpdateResult result = chunkedMemberAgeUpdater.bulkAgePlus(1020, progress::add);
+
+        //then
+        assertThat(result.getRows()).isEqualTo(3);
+        assertThat(result.getChunks()).isEqualTo(2); // 2건, 1건
+        assertThat(progress).hasSize(2);
+        assertThat(memberRepository.findById(members.get(1).getId()).get().getAge()).isEqualTo(1019);
+        assertThat(memberRepository.findById(members.get(2).getId()).get().getAge()).isEqualTo(1021);
+        assertThat(memberRepository.findById(members.get(4).getId()).get().getAge()).isEqualTo(1041);
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.CacheInvalidationEvent.Type;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class EntityCacheInvalidatorTest {
+
+    @Autowired
+    EntityCacheInvalidator entityCacheInvalidator;
+    @Autowired
+    CacheInvalidationBus cacheInvalidationBus;
+    @Autowired
+    MemberNearCache memberNearCache;
+    @Autowired
+    MemberRepository memberRepository;
+
+    Member member;
+
+    @AfterEach
+    public void cleanUp() {
+        if (member != null) {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    public void codec() {
+        CacheInvalidationEvent event = new CacheInvalidationEvent(Type.TEAM, 42L, -7L);
+
+        byte[] data = event.encode();
+
+        assertThat(data).hasSize(CacheInvalidationEvent.SIZE);
+        assertThat(CacheInvalidationEvent.decode(data, data.length)).isEqualTo(event);
+        assertThatThrownBy(() -> CacheInvalidationEvent.decode(data, data.length - 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        data[0] = 99;
+        assertThatThrownBy(() -> CacheInvalidationEvent.decode(data, data.length))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    //다른 인스턴스에서 온 이벤트만 적용
+    @Test
+    public void remoteEvent() {
+        //given
+        member = memberRepository.save(new Member("invalidatorMember", 10));
+        memberNearCache.find(member.getId());
+        long nodeId = entityCacheInvalidator.getNodeId();
+
+        //when - 자기가 보낸 이벤트
+        cacheInvalidationBus.publish(new CacheInvalidationEvent(Type.MEMBER, member.getId(), nodeId));
+        long misses = memberNearCache.stats().missCount();
+        memberNearCache.find(member.getId());
+
+        //then
+        assertThat(memberNearCache.stats().missCount()).isEqualTo(misses);
+
+        //when - 다른 노드가 보낸 이벤트
+        cacheInvalidationBus.publish(new CacheInvalidationEvent(Type.MEMBER, member.getId(), nodeId + 1));
+        memberNearCache.find(member.getId());
+
+        //then
+        assertThat(memberNearCache.stats().missCount()).isEqualTo(misses + 1);
+    }
+}
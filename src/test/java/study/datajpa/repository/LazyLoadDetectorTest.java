@@ -0,0 +1,117 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "member.lazy-load.threshold=1",
+        "member.lazy-load.fail-on-threshold=true"})
+@Transactional
+class LazyLoadDetectorTest {
+
+    @Autowired
+    LazyLoadDetector lazyLoadDetector;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamCache teamCache;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void reset() {
+        lazyLoadDetector.reset();
+    }
+
+    @Test
+    public void batchFetch() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("lazyMember" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> members = memberRepository.findMemberCustom(); // fetch join 없이 조회
+        for (Member member : members) {
+            member.getTeam().getName(); // 첫번째 초기화 때 in 쿼리로 나머지 팀도 같이 로딩
+        }
+
+        //then
+        assertThat(lazyLoadDetector.report().getOrDefault(Team.class.getName(), 0)).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void failOnThreshold() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member = new Member("lazyMember", 10, teamA);
+        em.persist(member);
+        em.flush();
+        em.clear();
+
+        //when
+        em.find(Member.class, member.getId()).getTeam().getName(); // 1회
+        em.clear();
+        teamCache.evictAll();
+
+        //then
+        assertThatThrownBy(() -> em.find(Member.class, member.getId()).getTeam().getName()) // 2회 -> 허용 횟수 초과
+                .satisfiesAnyOf(
+                        e -> assertThat(e).isInstanceOf(LazyLoadThresholdExceededException.class),
+                        e -> assertThat(e).hasCauseInstanceOf(LazyLoadThresholdExceededException.class));
+    }
+
+    //허용 횟수는 트랜잭션마다 - 이전 트랜잭션의 지연로딩은 세지 않음
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void countPerTransaction() {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long memberId = transactionTemplate.execute(status -> {
+            Team team = new Team("perTxTeam");
+            em.persist(team);
+            Member member = new Member("perTxMember", 10, team);
+            em.persist(member);
+            return member.getId();
+        });
+
+        try {
+            //when
+            for (int i = 0; i < 2; i++) { // 스레드 누적이면 두번째에서 허용 횟수 초과
+                teamCache.evictAll();
+                transactionTemplate.executeWithoutResult(status ->
+                        em.find(Member.class, memberId).getTeam().getName());
+            }
+
+            //then
+            assertThat(lazyLoadDetector.report().get(Team.class.getName())).isEqualTo(2); // 리포트는 누적
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                Member member = em.find(Member.class, memberId);
+                Team team = member.getTeam();
+                em.remove(member);
+                em.remove(team);
+            });
+        }
+    }
+}
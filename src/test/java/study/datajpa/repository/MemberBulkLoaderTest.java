@@ -0,0 +1,43 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberBulkLoaderTest {
+
+    @Autowired
+    MemberBulkLoader memberBulkLoader;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Test
+    public void saveAll() {
+        //given
+        long before = memberJpaRepository.count();
+        Team teamA = new Team("teamA");
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("bulk" + i, i % 50, teamA));
+        }
+
+        //when
+        BulkLoadResult result = memberBulkLoader.saveAll(members);
+
+        //then
+        assertThat(result.getRows()).isEqualTo(250);
+        assertThat(result.getRowsPerSecond()).isPositive();
+        assertThat(memberJpaRepository.count()).isEqualTo(before + 250);
+        assertThat(teamA.getId()).isNotNull();
+    }
+}
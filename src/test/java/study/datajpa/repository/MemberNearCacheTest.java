@@ -0,0 +1,56 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+import static org.assertj.core.api.Assertions.*;
+
+//커밋 후 이벤트로 캐시를 비우므로 테스트 트랜잭션 없이 실행
+@SpringBootTest
+class MemberNearCacheTest {
+
+    @Autowired
+    MemberNearCache memberNearCache;
+    @Autowired
+    MemberRepository memberRepository;
+
+    Member member;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.findById(member.getId()).ifPresent(memberRepository::delete);
+    }
+
+    @Test
+    public void cacheAndInvalidate() {
+        //given
+        member = memberRepository.save(new Member("nearCacheMember", 10));
+        long hits = memberNearCache.stats().hitCount();
+
+        //when
+        MemberDto first = memberNearCache.find(member.getId()).get();
+        MemberDto second = memberNearCache.find(member.getId()).get();
+
+        //then
+        assertThat(first.getUsername()).isEqualTo("nearCacheMember");
+        assertThat(second).isSameAs(first);
+        assertThat(memberNearCache.stats().hitCount()).isEqualTo(hits + 1);
+
+        //when - 수정 커밋
+        member.setUsername("renamedMember");
+        member = memberRepository.save(member);
+
+        //then
+        assertThat(memberNearCache.find(member.getId()).get().getUsername()).isEqualTo("renamedMember");
+
+        //when - 삭제 커밋
+        memberRepository.delete(member);
+
+        //then
+        assertThat(memberNearCache.find(member.getId())).isEmpty();
+    }
+}
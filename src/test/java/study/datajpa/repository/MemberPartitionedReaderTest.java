@@ -0,0 +1,64 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+//chunk마다 별도 트랜잭션으로 읽으므로 커밋된 데이터가 필요 -> 테스트 트랜잭션 없이 실행
+@SpringBootTest(properties = "member.partitioned-read.chunk-size=3")
+class MemberPartitionedReaderTest {
+
+    @Autowired
+    MemberPartitionedReader memberPartitionedReader;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    List<Member> members = new ArrayList<>();
+    Team team;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(members.stream().map(Member::getId).collect(Collectors.toList()));
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void readAll() {
+        //given
+        team = teamRepository.save(new Team("partitionTeam"));
+        for (int i = 0; i < 20; i++) {
+            Member member = new Member("partitionMember" + i, i);
+            member.setTeam(team);
+            members.add(memberRepository.save(member));
+        }
+        List<Long> ids = members.stream().map(Member::getId).collect(Collectors.toList());
+
+        //when
+        List<MemberDto> all = memberPartitionedReader.readAll(4);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        memberPartitionedReader.forEach(4, dto -> threads.add(Thread.currentThread().getName()));
+
+        //then
+        List<MemberDto> saved = all.stream()
+                .filter(dto -> dto.getUsername().startsWith("partitionMember"))
+                .collect(Collectors.toList());
+        assertThat(saved).extracting("id").containsExactlyElementsOf(ids); // id 순서 유지, 중복 없음
+        assertThat(saved).extracting("teamName").containsOnly("partitionTeam");
+        assertThat(all).extracting("id").isSorted();
+        assertThat(threads).allMatch(name -> name.startsWith("ForkJoinPool-")); // 공용 풀이 아닌 전용 풀
+    }
+}
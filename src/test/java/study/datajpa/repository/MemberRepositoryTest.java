@@ -1,5 +1,7 @@
 package study.datajpa.repository;
 
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -10,13 +12,17 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberWindowDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -31,6 +37,8 @@ class MemberRepositoryTest {
     TeamRepository teamRepository;
     @Autowired
     EntityManager em;
+    @Autowired
+    TeamCache teamCache;
 
     @Test
     public void save() throws Exception {
@@ -396,4 +404,216 @@ class MemberRepositoryTest {
         }
 
     }
-}
\ No newline at end of file
+
+    //keyset 페이징 테스트
+    @Test
+    public void keysetPaging() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        Member member1 = memberRepository.save(new Member("member1", 10, teamA));
+        Member member2 = memberRepository.save(new Member("member2", 10, teamA));
+        Member member3 = memberRepository.save(new Member("member3", 10));
+
+        em.flush();
+        em.clear();
+
+        //when
+        Long lastId = member1.getId() - 1; // member1 부터 조회
+        Slice<MemberDto> first = memberRepository.findMemberDtoByIdAfter(lastId, PageRequest.of(0, 2));
+        MemberWindowDto window = MemberWindowDto.of(first);
+        Slice<MemberDto> second = memberRepository.findMemberDtoByIdAfter(
+                MemberWindowDto.decodeCursor(window.getNextCursor()), PageRequest.of(0, 2));
+
+        //then
+        assertThat(first.getContent()).extracting("id").containsExactly(member1.getId(), member2.getId());
+        assertThat(first.getContent().get(0).getTeamName()).isEqualTo("teamA");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent().get(0).getId()).isEqualTo(member3.getId());
+        assertThat(second.getContent().get(0).getTeamName()).isNull(); // 팀 없는 회원도 조회 (left join)
+    }
+
+    //스트리밍 조회 테스트
+    @Test
+    public void streamAll() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("streamMember" + i, i));
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        List<String> usernames;
+        try (Stream<Member> stream = memberRepository.streamAll(2, 2)) { // 2건마다 영속성 컨텍스트 clear
+            usernames = stream.map(Member::getUsername)
+                    .filter(name -> name.startsWith("streamMember"))
+                    .collect(Collectors.toList());
+        }
+
+        //then
+        assertThat(usernames).containsExactly(
+                "streamMember0", "streamMember1", "streamMember2", "streamMember3", "streamMember4");
+    }
+
+    //clear는 소비자가 처리한 다음에 - 소비자가 받는 엔티티는 항상 영속 상태
+    @Test
+    public void streamAllClearsAfterConsumer() {
+        //given
+        for (int i = 0; i < 4; i++) {
+            memberRepository.save(new Member("clearMember" + i, i));
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        List<Boolean> managed = new ArrayList<>();
+        try (Stream<Member> stream = memberRepository.streamAll(2, 2)) {
+            stream.filter(m -> m.getUsername().startsWith("clearMember"))
+                    .forEach(m -> managed.add(em.contains(m)));
+        }
+
+        //then
+        assertThat(managed).isNotEmpty().containsOnly(true);
+        assertThatThrownBy(() -> memberRepository.streamAll(2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.streamAll(0, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    //count 쿼리 캐시 테스트
+    @Test
+    public void pagingWithCountCache() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        PageRequest pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "username"));
+        long total = memberRepository.findByAgeWithCountCache(10, pageRequest).getTotalElements();
+
+        //when
+        em.persist(new Member("member3", 10)); // 리포지토리를 거치지 않으면 캐시가 그대로 사용됨
+        Page<Member> cached = memberRepository.findByAgeWithCountCache(10, pageRequest);
+        memberRepository.save(new Member("member4", 10)); // save 하면 캐시 무효화
+        Page<Member> evicted = memberRepository.findByAgeWithCountCache(10, pageRequest);
+
+        //then
+        assertThat(cached.getContent().size()).isEqualTo(1);
+        assertThat(cached.getTotalElements()).isEqualTo(total);
+        assertThat(evicted.getTotalElements()).isEqualTo(total + 2);
+        assertThat(memberRepository.findByNativeProjectionWithCountCache(PageRequest.of(0, 1)).getTotalElements())
+                .isEqualTo(total + 2);
+    }
+
+    //팀 2차 캐시 테스트
+    @Test
+    public void teamSecondLevelCache() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        em.flush();
+        em.clear();
+        teamCache.evict(teamA.getId());
+        long hitCount = teamCache.statistics().getHitCount();
+
+        //when
+        teamRepository.findById(teamA.getId()); // db 조회 후 캐시에 저장
+        em.clear();
+        Team findTeam = teamRepository.findById(teamA.getId()).get(); // 캐시에서 조회
+
+        //then
+        assertThat(findTeam.getName()).isEqualTo("teamA");
+        assertThat(teamCache.contains(teamA.getId())).isTrue();
+        assertThat(teamCache.statistics().getHitCount()).isEqualTo(hitCount + 1);
+    }
+
+    //열린 프로젝션과 닫힌 dto 프로젝션 결과 비교
+    @Test
+    public void closedProjection() {
+        //given
+        memberRepository.save(new Member("member1", 200));
+        memberRepository.save(new Member("member2", 201));
+        em.flush();
+        em.clear();
+
+        //when
+        List<UsernameOnly> open = memberRepository.findProjectionsByAgeGreaterThanEqual(200, UsernameOnly.class);
+        List<UsernameAgeDto> closed = memberRepository.findProjectionsByAgeGreaterThanEqual(200, UsernameAgeDto.class);
+
+        //then
+        assertThat(closed).extracting(UsernameOnly::getUsername)
+                .containsExactlyInAnyOrderElementsOf(
+                        open.stream().map(UsernameOnly::getUsername).collect(Collectors.toList()));
+        assertThat(closed).extracting(UsernameOnly::getUsername).contains("member1 200", "member2 201");
+    }
+
+    //dto 페이징 - 엔티티를 영속성 컨텍스트에 올리지 않고 팀 이름까지 조회
+    @Test
+    public void dtoPage() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        Member member1 = memberRepository.save(new Member("member1", 10, teamA));
+        Member member2 = memberRepository.save(new Member("member2", 10));
+        em.flush();
+        em.clear();
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(
+                PageRequest.of(0, 2000, Sort.by(Sort.Direction.DESC, "id")));
+        List<MemberDto> saved = page.getContent().stream()
+                .filter(dto -> dto.getId().equals(member1.getId()) || dto.getId().equals(member2.getId()))
+                .collect(Collectors.toList());
+
+        //then
+        assertThat(saved).extracting("id").containsExactly(member2.getId(), member1.getId());
+        assertThat(saved).extracting("teamName").containsExactly(null, "teamA");
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(2);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0); // 관리되는 엔티티 없음
+    }
+
+    //쓰기 트랜잭션 안에서 @ReadOnlyQuery 조회
+    @Test
+    public void readOnlyQueryInReadWriteTransaction() {
+        //given
+        memberRepository.save(new Member("readOnlyMember", 10));
+        em.flush();
+        em.clear();
+        memberRepository.save(new Member("pendingMember", 30)); // 아직 flush 전
+        Session session = em.unwrap(Session.class);
+
+        //when
+        List<Member> pending = memberRepository.findByUsername("pendingMember"); // 조회 전에 flush
+        List<MemberDto> dtos = memberRepository.findMemberDto(); // dto 조회는 읽기 전용 세션
+
+        //then
+        assertThat(pending).hasSize(1);
+        assertThat(dtos).extracting("username").contains("readOnlyMember");
+        assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.AUTO); // 조회 후 원래대로
+        assertThat(session.isDefaultReadOnly()).isFalse();
+    }
+
+    //쓰기 트랜잭션에서 @ReadOnlyQuery로 읽은 엔티티 -> findById는 같은 인스턴스 -> 수정이 반영되고 버전 증가
+    @Test
+    public void readOnlyQueryThenFindByIdThenModify() {
+        //given
+        memberRepository.save(new Member("readThenWriteMember", 10));
+        em.flush();
+        em.clear();
+        Session session = em.unwrap(Session.class);
+
+        //when
+        Member read = memberRepository.findByUsername("readThenWriteMember").get(0);
+        Member found = memberRepository.findById(read.getId()).get();
+        boolean readOnly = session.isReadOnly(found);
+        long version = found.getVersion();
+        found.setAge(20);
+        em.flush();
+        em.clear();
+
+        //then
+        assertThat(found).isSameAs(read);
+        assertThat(readOnly).isFalse();
+        Member saved = memberRepository.findById(read.getId()).get();
+        assertThat(saved.getAge()).isEqualTo(20);
+        assertThat(saved.getVersion()).isEqualTo(version + 1);
+    }
+}
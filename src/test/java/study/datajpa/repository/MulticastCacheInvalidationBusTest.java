@@ -0,0 +1,111 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.CacheInvalidationEvent.Type;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+//같은 머신의 두 노드 - 스프링 컨텍스트(노드 A)와 테스트에서 만든 버스(노드 B)가 같은 그룹/포트 사용
+@SpringBootTest(properties = {
+        "member.cache-bus.type=multicast",
+        "member.cache-bus.multicast.group=" + MulticastCacheInvalidationBusTest.GROUP,
+        "member.cache-bus.multicast.port=" + MulticastCacheInvalidationBusTest.PORT})
+class MulticastCacheInvalidationBusTest {
+
+    static final String GROUP = "239.255.27.9";
+    static final int PORT = 45599;
+
+    @Autowired
+    EntityCacheInvalidator entityCacheInvalidator;
+    @Autowired
+    CacheInvalidationBus cacheInvalidationBus;
+    @Autowired
+    MemberNearCache memberNearCache;
+    @Autowired
+    MemberRepository memberRepository;
+
+    Member member;
+
+    //멀티캐스트 라우팅이 없는 환경(컨테이너 등)에서는 건너뜀
+    @BeforeAll
+    public static void multicastAvailable() throws Exception {
+        CacheInvalidationEvent probe = new CacheInvalidationEvent(Type.MEMBER_COUNTS, 0, 0);
+        try (MulticastCacheInvalidationBus bus = new MulticastCacheInvalidationBus(GROUP, PORT, 0, null)) {
+            CountDownLatch received = receive(bus, probe);
+            bus.publish(probe);
+            assumeTrue(received.await(2, TimeUnit.SECONDS), "멀티캐스트를 사용할 수 없는 환경");
+        } catch (IOException e) {
+            assumeTrue(false, "멀티캐스트를 사용할 수 없는 환경: " + e);
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        if (member != null) {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    public void deliverToOtherNode() throws Exception {
+        //given
+        member = memberRepository.save(new Member("multicastMember", 10));
+        memberNearCache.find(member.getId());
+        CacheInvalidationEvent event = new CacheInvalidationEvent(Type.MEMBER, member.getId(), entityCacheInvalidator.getNodeId() + 1);
+        CountDownLatch received = receive(cacheInvalidationBus, event);
+
+        try (MulticastCacheInvalidationBus nodeB = new MulticastCacheInvalidationBus(GROUP, PORT, 0, null)) {
+            //when
+            nodeB.publish(event);
+
+            //then
+            assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+            long misses = memberNearCache.stats().missCount();
+            memberNearCache.find(member.getId());
+            assertThat(memberNearCache.stats().missCount()).isEqualTo(misses + 1); // 노드 A의 캐시가 비워짐
+        }
+    }
+
+    @Test
+    public void ignoreOwnEvent() throws Exception {
+        //given
+        member = memberRepository.save(new Member("multicastMember", 10));
+        memberNearCache.find(member.getId());
+        CacheInvalidationEvent event = new CacheInvalidationEvent(Type.MEMBER, member.getId(), entityCacheInvalidator.getNodeId());
+        CountDownLatch loopback = receive(cacheInvalidationBus, event);
+
+        try (MulticastCacheInvalidationBus nodeB = new MulticastCacheInvalidationBus(GROUP, PORT, 0, null)) {
+            CountDownLatch delivered = receive(nodeB, event);
+
+            //when
+            cacheInvalidationBus.publish(event);
+
+            //then
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue(); // 다른 노드로 전달
+            assertThat(loopback.await(5, TimeUnit.SECONDS)).isTrue(); // 자기가 보낸 이벤트도 돌아옴
+            long misses = memberNearCache.stats().missCount();
+            memberNearCache.find(member.getId());
+            assertThat(memberNearCache.stats().missCount()).isEqualTo(misses); // 하지만 캐시는 그대로
+        }
+    }
+
+    private static CountDownLatch receive(CacheInvalidationBus bus, CacheInvalidationEvent expected) {
+        CountDownLatch latch = new CountDownLatch(1);
+        bus.subscribe(event -> {
+            if (event.equals(expected)) {
+                latch.countDown();
+            }
+        });
+        return latch;
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+//시도마다 커밋하므로 테스트 트랜잭션 없이 실행
+@SpringBootTest
+class OptimisticRetryTemplateTest {
+
+    @Autowired
+    OptimisticRetryTemplate optimisticRetryTemplate;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Member member;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    public void retryOnConflict() {
+        //given
+        member = memberRepository.save(new Member("optimisticMember", 10));
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        optimisticRetryTemplate.run(() -> {
+            Member findMember = memberRepository.findById(member.getId()).get();
+            if (attempts.incrementAndGet() == 1) {
+                // 다른 트랜잭션이 먼저 수정하고 커밋 -> 이번 시도는 커밋할 때 버전 충돌
+                otherTransaction.executeWithoutResult(status ->
+                        memberRepository.findById(member.getId()).get().setAge(20));
+            }
+            findMember.setAge(findMember.getAge() + 1);
+        });
+
+        //then
+        Member result = memberRepository.findById(member.getId()).get();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(result.getAge()).isEqualTo(21);
+        assertThat(result.getVersion()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.repository;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+//조건이 있는 리포지토리 쿼리가 member 테이블 전체 스캔을 하지 않는지 확인
+//p6spy로 실제 실행된 sql(파라미터 값 포함)을 모아서 h2 EXPLAIN 실행계획에 tableScan이 있으면 실패
+@SpringBootTest
+@Transactional
+class QueryIndexUsageTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    SqlCaptor sqlCaptor;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        SqlCaptor sqlCaptor() {
+            return new SqlCaptor();
+        }
+    }
+
+    //p6spy 스타터가 JdbcEventListener 빈을 등록해줌
+    static class SqlCaptor extends SimpleJdbcEventListener {
+
+        private final List<String> sqls = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            sqls.add(statementInformation.getSqlWithValues());
+        }
+
+        List<String> drain() {
+            synchronized (sqls) {
+                List<String> result = new ArrayList<>(sqls);
+                sqls.clear();
+                return result;
+            }
+        }
+    }
+
+    @Test
+    public void filteringQueriesUseIndex() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 20));
+        em.flush();
+        em.clear();
+        sqlCaptor.drain();
+
+        //when
+        memberRepository.findByUsername("member1");
+        memberRepository.findListByUsername("member1");
+        memberRepository.findLockByUsername("member1");
+        memberRepository.findPessimisticLockByUsername("member1");
+        memberRepository.findUser("member1", 10);
+        memberRepository.findByUsernameAndAgeGreaterThan("member1", 5);
+        memberRepository.findByNames(Arrays.asList("member1", "member2"));
+        memberRepository.findByNativeQuery("member1");
+        memberRepository.findProjectionsByAgeGreaterThanEqual(15, UsernameOnly.class);
+        memberRepository.bulkAgeplus(15);
+
+        //then
+        Set<String> filtering = new LinkedHashSet<>();
+        for (String sql : sqlCaptor.drain()) {
+            String lower = sql.toLowerCase();
+            if (lower.contains("member") && lower.contains(" where ")) {
+                filtering.add(sql);
+            }
+        }
+        assertThat(filtering).isNotEmpty();
+        for (String sql : filtering) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+            assertThat(plan).as(sql).doesNotContainIgnoringCase("PUBLIC.MEMBER.tableScan");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class QueryPlanWarmerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void plansCompiledAtStartup() {
+        //given
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long miss = statistics.getQueryPlanCacheMissCount();
+
+        //when
+        em.createQuery("select m from Member m where m.username = :username and m.age = :age");
+        em.createQuery("select count(m) from Member m");
+        em.createQuery("select m from Member m where m.username in :names")
+                .setParameter("names", Arrays.asList("a", "b", "c"))
+                .getResultList();
+
+        //then - 시작할 때 이미 컴파일된 쿼리 (3개 파라미터는 4개로 패딩)
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(miss);
+    }
+}
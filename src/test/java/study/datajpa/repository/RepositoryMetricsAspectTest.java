@@ -0,0 +1,78 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MeterRegistry registry;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void recordRepositoryCall() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("metricMember", 10, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        memberRepository.findByUsername("metricMember");
+
+        //then
+        assertThat(registry.get("repository.calls")
+                .tags("repository", "MemberRepository", "method", "findByUsername")
+                .timer().count()).isGreaterThanOrEqualTo(1);
+        DistributionSummary statements = registry.get("repository.statements")
+                .tags("repository", "MemberRepository", "method", "findByUsername")
+                .summary();
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(1);
+        DistributionSummary entities = registry.get("repository.entities.loaded")
+                .tags("repository", "MemberRepository", "method", "findByUsername")
+                .summary();
+        assertThat(entities.max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void recordStreamRowsOnCloseAndSkipObjectMethods() {
+        //given
+        em.persist(new Member("metricStream", 10));
+        em.flush();
+        em.clear();
+        DistributionSummary rows = registry.find("repository.rows")
+                .tags("repository", "MemberRepository", "method", "streamAll")
+                .summary();
+        double before = rows == null ? 0 : rows.totalAmount();
+
+        //when
+        long count;
+        try (Stream<Member> stream = memberRepository.streamAll(10, 10)) {
+            count = stream.count();
+        }
+        memberRepository.toString();
+
+        //then
+        assertThat(registry.get("repository.rows")
+                .tags("repository", "MemberRepository", "method", "streamAll")
+                .summary().totalAmount() - before).isEqualTo(count); // 스트림 하나를 1건이 아니라 읽은 건수로
+        assertThat(registry.find("repository.calls").tags("method", "toString").timer()).isNull();
+    }
+}
@@ -0,0 +1,85 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+//StatelessMemberOperations가 직접 트랜잭션을 열고 커밋하므로 테스트 트랜잭션 없이 실행
+@SpringBootTest
+class StatelessMemberOperationsTest {
+
+    @Autowired
+    StatelessMemberOperations statelessMemberOperations;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    CacheInvalidationBus cacheInvalidationBus;
+
+    List<Member> members = new ArrayList<>();
+    List<Team> teams = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(members.stream().map(Member::getId).collect(Collectors.toList()));
+        teamRepository.deleteAllById(teams.stream().map(Team::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void insertScrollUpdate() {
+        //given
+        Team teamA = new Team("statelessTeamA");
+        for (int i = 0; i < 3; i++) {
+            members.add(new Member("statelessMember" + i, i, teamA));
+        }
+        teams.add(teamA);
+
+        //when
+        long inserted = statelessMemberOperations.insertAll(members);
+        List<Member> scrolled = new ArrayList<>();
+        statelessMemberOperations.scrollAll(100, m -> {
+            if (m.getUsername().startsWith("statelessMember")) {
+                scrolled.add(m);
+            }
+        });
+
+        //then
+        assertThat(inserted).isEqualTo(3);
+        assertThat(teamA.getId()).isNotNull();
+        assertThat(scrolled).extracting("username")
+                .containsExactly("statelessMember0", "statelessMember1", "statelessMember2");
+        assertThat(scrolled.get(0).getTeam().getName()).isEqualTo("statelessTeamA"); // fetch join
+        Member saved = memberRepository.findById(members.get(0).getId()).get();
+        assertThat(saved.getCreatedDate()).isNotNull(); // 엔티티 리스너 대신 직접 auditing
+        assertThat(saved.getVersion()).isEqualTo(0);
+
+        //when - 팀 변경
+        Team teamB = teamRepository.save(new Team("statelessTeamB"));
+        teams.add(teamB);
+        scrolled.get(0).changeTeam(teamB); // teamB는 새로 만든 팀이라 members 컬렉션 수정 가능, 저장은 외래키만
+        scrolled.get(1).setTeam(teamB); // stateless로 읽은 팀의 컬렉션은 건드리지 않음
+        List<CacheInvalidationEvent> published = new CopyOnWriteArrayList<>();
+        cacheInvalidationBus.subscribe(published::add);
+        statelessMemberOperations.updateAll(scrolled.subList(0, 2));
+
+        //then
+        List<Member> teamBMembers = memberRepository.findAll().stream()
+                .filter(m -> m.getTeam() != null && m.getTeam().getId().equals(teamB.getId()))
+                .collect(Collectors.toList());
+        assertThat(teamBMembers).extracting("username")
+                .containsExactlyInAnyOrder("statelessMember0", "statelessMember1");
+        assertThat(teamBMembers).extracting("version").containsOnly(1L);
+        assertThat(published).extracting("type").containsExactly(CacheInvalidationEvent.Type.MEMBERS); // 회원마다가 아니라 한번
+    }
+}
@@ -0,0 +1,172 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.TeamStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+//팀 통계는 커밋 직전에 반영되므로 테스트 트랜잭션 없이 단계마다 커밋
+@SpringBootTest
+class TeamJpaRepositoryTest {
+
+    @Autowired TeamJpaRepository teamJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired ChunkedMemberAgeUpdater chunkedMemberAgeUpdater;
+    @Autowired StatelessMemberOperations statelessMemberOperations;
+    @Autowired TeamStatsMaintainer teamStatsMaintainer;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    List<Member> members = new ArrayList<>();
+    List<Team> teams = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(members.stream().map(Member::getId).collect(Collectors.toList()));
+        teamRepository.deleteAllById(teams.stream().map(Team::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void teamStats() {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Team teamA = save(new Team("statsTeamA"));
+        Team teamB = save(new Team("statsTeamB"));
+        transactionTemplate.executeWithoutResult(status -> {
+            members.add(memberRepository.save(new Member("statsMember1", 15, teamA)));
+            members.add(memberRepository.save(new Member("statsMember2", 25, teamA)));
+            members.add(memberRepository.save(new Member("statsMember3", 29, teamA)));
+        });
+
+        //then
+        TeamStats statsA = stats(teamA);
+        assertThat(statsA.getMemberCount()).isEqualTo(3);
+        assertThat(statsA.getAgeSum()).isEqualTo(69);
+        assertThat(statsA.getAverageAge()).isEqualTo(23.0);
+        assertThat(statsA.getAgeHistogram()).containsExactly(0, 1, 2, 0, 0, 0, 0, 0, 0, 0);
+        assertThat(stats(teamB).getMemberCount()).isZero();
+
+        //팀 변경
+        Long member1Id = members.get(0).getId();
+        transactionTemplate.executeWithoutResult(status ->
+                memberRepository.findById(member1Id).orElseThrow().changeTeam(teamRepository.findById(teamB.getId()).orElseThrow()));
+        assertThat(stats(teamA).getMemberCount()).isEqualTo(2);
+        TeamStats statsB = stats(teamB);
+        assertThat(statsB.getMemberCount()).isEqualTo(1);
+        assertThat(statsB.getAgeHistogram()[1]).isEqualTo(1);
+
+        //롤백된 트랜잭션의 변경분은 반영 안됨
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("statsRollback", 40, teamRepository.findById(teamB.getId()).orElseThrow()));
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(stats(teamB).getMemberCount()).isEqualTo(1);
+
+        //삭제
+        memberRepository.deleteById(member1Id);
+        members.remove(0);
+        assertThat(stats(teamB).getMemberCount()).isZero();
+        assertThat(stats(teamB).getAgeSum()).isZero();
+    }
+
+    //벌크 수정 - 수정 전에 대상 회원으로 변경분 계산 (다른 테스트 데이터를 건드리지 않도록 큰 나이 사용)
+    @Test
+    public void bulkUpdate() {
+        //given
+        Team team = save(new Team("statsBulkTeam"));
+        members.add(memberRepository.save(new Member("statsBulk1", 3000, team)));
+        members.add(memberRepository.save(new Member("statsBulk2", 3010, team)));
+        members.add(memberRepository.save(new Member("statsBulk3", 3020))); // 팀 없음
+
+        //when
+        memberRepository.bulkAgeplus(3000); // 3001, 3011
+        memberJpaRepository.bulkAgePlus(3005); // 3001, 3012
+        chunkedMemberAgeUpdater.bulkAgePlus(3000); // 3002, 3013
+
+        //then
+        TeamStats stats = stats(team);
+        assertThat(stats.getMemberCount()).isEqualTo(2);
+        assertThat(stats.getAgeSum()).isEqualTo(6015);
+        assertThat(stats.getAgeHistogram()[9]).isEqualTo(2);
+    }
+
+    //StatelessSession 작업 - 쓴 row로 변경분 계산
+    @Test
+    public void statelessOperations() {
+        //given
+        Team teamA = new Team("statsStatelessTeamA");
+        teams.add(teamA);
+        members.add(new Member("statsStateless1", 5, teamA));
+        members.add(new Member("statsStateless2", 12, teamA));
+
+        //when
+        statelessMemberOperations.insertAll(members);
+
+        //then
+        TeamStats statsA = stats(teamA);
+        assertThat(statsA.getMemberCount()).isEqualTo(2);
+        assertThat(statsA.getAgeSum()).isEqualTo(17);
+        assertThat(statsA.getAgeHistogram()).containsExactly(1, 1, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        //when - 나이, 팀 변경
+        Team teamB = save(new Team("statsStatelessTeamB"));
+        Member member1 = memberRepository.findById(members.get(0).getId()).orElseThrow();
+        Member member2 = memberRepository.findById(members.get(1).getId()).orElseThrow();
+        member1.setAge(25);
+        member1.setTeam(teamB); // 준영속 회원이라 팀 컬렉션은 건드리지 않음
+        member2.setAge(32);
+        statelessMemberOperations.updateAll(Arrays.asList(member1, member2));
+
+        //then
+        statsA = stats(teamA);
+        assertThat(statsA.getMemberCount()).isEqualTo(1);
+        assertThat(statsA.getAgeSum()).isEqualTo(32);
+        assertThat(statsA.getAgeHistogram()).containsExactly(0, 0, 0, 1, 0, 0, 0, 0, 0, 0);
+        TeamStats statsB = stats(teamB);
+        assertThat(statsB.getMemberCount()).isEqualTo(1);
+        assertThat(statsB.getAgeHistogram()[2]).isEqualTo(1);
+    }
+
+    //관리용 전체 재계산
+    @Test
+    public void rebuild() {
+        //given
+        Team team = save(new Team("statsRebuildTeam"));
+        members.add(memberRepository.save(new Member("statsRebuild1", 33, team)));
+        jdbcTemplate.update("update team_stats set member_count = 100, age_sum = 0 where team_id = ?", team.getId());
+
+        //when
+        teamStatsMaintainer.rebuild();
+
+        //then
+        TeamStats stats = stats(team);
+        assertThat(stats.getMemberCount()).isEqualTo(1);
+        assertThat(stats.getAgeSum()).isEqualTo(33);
+        assertThat(stats.getAgeHistogram()[3]).isEqualTo(1);
+    }
+
+    private Team save(Team team) {
+        teams.add(teamJpaRepository.save(team));
+        return team;
+    }
+
+    private TeamStats stats(Team team) {
+        return teamJpaRepository.findStats(team.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,92 @@
+package study.datajpa.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.BlockingQueryExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+//chunk마다 별도 스레드/트랜잭션에서 조회하므로 테스트 트랜잭션 없이 실행
+@SpringBootTest(properties = {"member.lookup.chunk-size=2", "member.lookup.parallelism=2"})
+class MemberBatchLookupTest {
+
+    @Autowired
+    MemberBatchLookup memberBatchLookup;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @SpyBean
+    BlockingQueryExecutor queryExecutor;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(members.stream().map(Member::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void lookupInChunks() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            members.add(memberRepository.save(new Member("lookupMember" + i, i)));
+        }
+        List<String> names = Arrays.asList("lookupMember0", "lookupMember1", "lookupMember2",
+                "lookupMember3", "lookupMember4", "lookupMember4", "noSuchMember");
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        //when
+        List<MemberDto> result = memberBatchLookup.findByNames(names);
+        long hits = statistics.getQueryPlanCacheHitCount();
+        memberBatchLookup.findByNames(names);
+
+        //then
+        assertThat(result).extracting("username")
+                .containsExactlyInAnyOrder("lookupMember0", "lookupMember1", "lookupMember2",
+                        "lookupMember3", "lookupMember4");
+        // 같은 크기의 in 절은 플랜을 재사용
+        assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThan(hits);
+        // chunk 3개 -> 호출당 작업은 parallelism(2)개까지
+        verify(queryExecutor, times(4)).submit(any());
+    }
+
+    //호출한 쪽 트랜잭션 안이면 그 트랜잭션에서 조회 (커밋 전 회원도 보임)
+    @Test
+    public void lookupInCallerTransaction() {
+        //when
+        List<MemberDto> result = new TransactionTemplate(transactionManager).execute(status -> {
+            for (int i = 0; i < 5; i++) {
+                memberRepository.save(new Member("txLookupMember" + i, i));
+            }
+            List<MemberDto> found = memberBatchLookup.findByNames(Arrays.asList("txLookupMember0", "txLookupMember1",
+                    "txLookupMember2", "txLookupMember3", "txLookupMember4"));
+            status.setRollbackOnly();
+            return found;
+        });
+
+        //then
+        assertThat(result).hasSize(5);
+        verify(queryExecutor, never()).submit(any());
+    }
+}